@@ -0,0 +1,82 @@
+package com.example.ticketero.benchmark;
+
+import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.repository.MensajeRepository.DueMessage;
+import com.example.ticketero.service.MessageTemplateRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Armado de mensajes: String.format (implementación anterior del despachador)
+ * contra las plantillas precompiladas de MessageTemplateRenderer.
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec
+ * El GCProfiler reporta los bytes asignados por mensaje (gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageTemplateRendererBenchmark {
+
+    private MessageTemplateRenderer renderer;
+    private DueMessage mensaje;
+
+    @Setup
+    public void setUp() {
+        renderer = new MessageTemplateRenderer("es");
+        mensaje = new DueMessage() {
+            public Long getId() { return 1L; }
+            public String getPlantilla() { return MessageTemplate.TOTEM_TICKET_CREADO.name(); }
+            public int getIntentos() { return 0; }
+            public String getTicketStatus() { return "EN_ESPERA"; }
+            public String getNumero() { return "C05"; }
+            public String getQueueType() { return QueueType.CAJA.name(); }
+            public Integer getPositionInQueue() { return 3; }
+            public Integer getEstimatedWaitMinutes() { return 15; }
+            public Integer getAssignedModuleNumber() { return 4; }
+        };
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(
+            "🎫 Ticket creado: %s\n" +
+            "Cola: %s\n" +
+            "Posición: %d\n" +
+            "Tiempo estimado: %d minutos",
+            mensaje.getNumero(),
+            QueueType.valueOf(mensaje.getQueueType()).getDisplayName(),
+            mensaje.getPositionInQueue(),
+            mensaje.getEstimatedWaitMinutes()
+        );
+    }
+
+    @Benchmark
+    public String precompiledTemplate() {
+        return renderer.render(MessageTemplate.TOTEM_TICKET_CREADO, mensaje);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MessageTemplateRendererBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
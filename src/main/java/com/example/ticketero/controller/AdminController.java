@@ -2,15 +2,26 @@ package com.example.ticketero.controller;
 
 import com.example.ticketero.model.dto.response.AdvisorResponse;
 import com.example.ticketero.model.dto.response.DashboardResponse;
+import com.example.ticketero.model.dto.response.MessageReplayResponse;
+import com.example.ticketero.model.dto.response.PageResponse;
 import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.ExportFormat;
 import com.example.ticketero.service.AdvisorService;
 import com.example.ticketero.service.DashboardService;
+import com.example.ticketero.service.MessageService;
 import com.example.ticketero.service.QueueProcessorService;
+import com.example.ticketero.service.TicketExportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -22,6 +33,8 @@ public class AdminController {
     private final DashboardService dashboardService;
     private final AdvisorService advisorService;
     private final QueueProcessorService queueProcessorService;
+    private final TicketExportService ticketExportService;
+    private final MessageService messageService;
 
     @GetMapping("/dashboard")
     public ResponseEntity<DashboardResponse> getDashboard() {
@@ -32,10 +45,13 @@ public class AdminController {
     }
 
     @GetMapping("/advisors")
-    public ResponseEntity<List<AdvisorResponse>> getAllAdvisors() {
+    public ResponseEntity<PageResponse<AdvisorResponse>> getAllAdvisors(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "${ticketero.pagination.default-page-size:50}") int limit
+    ) {
         log.info("GET /api/admin/advisors - Retrieving all advisors");
         
-        List<AdvisorResponse> advisors = advisorService.findAll();
+        PageResponse<AdvisorResponse> advisors = advisorService.findAll(cursor, limit);
         return ResponseEntity.ok(advisors);
     }
 
@@ -49,12 +65,14 @@ public class AdminController {
     }
 
     @GetMapping("/advisors/status/{status}")
-    public ResponseEntity<List<AdvisorResponse>> getAdvisorsByStatus(
-            @PathVariable AdvisorStatus status
+    public ResponseEntity<PageResponse<AdvisorResponse>> getAdvisorsByStatus(
+            @PathVariable AdvisorStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "${ticketero.pagination.default-page-size:50}") int limit
     ) {
         log.info("GET /api/admin/advisors/status/{} - Retrieving advisors by status", status);
         
-        List<AdvisorResponse> advisors = advisorService.findByStatus(status);
+        PageResponse<AdvisorResponse> advisors = advisorService.findByStatus(status, cursor, limit);
         return ResponseEntity.ok(advisors);
     }
 
@@ -93,6 +111,42 @@ public class AdminController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Exporta en streaming los tickets creados entre dos días hábiles (ambos incluidos)
+     */
+    @GetMapping("/tickets/export")
+    public ResponseEntity<StreamingResponseBody> exportTickets(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        log.info("GET /api/admin/tickets/export - Exporting tickets from {} to {} as {} (gzip: {})",
+                from, to, format, gzip);
+
+        StreamingResponseBody body = ticketExportService.export(from, to, format, gzip);
+        String filename = "tickets_" + from + "_" + to + "." + format.getExtension() + (gzip ? ".gz" : "");
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    /**
+     * Reenvía en bloque los mensajes cuyos reintentos se agotaron (dead letter)
+     */
+    @PostMapping("/messages/dead-letter/replay")
+    public ResponseEntity<MessageReplayResponse> replayDeadLetterMessages(
+            @RequestParam(defaultValue = "500") int limit
+    ) {
+        log.info("POST /api/admin/messages/dead-letter/replay - Replaying up to {} messages", limit);
+
+        MessageReplayResponse response = messageService.replayDeadLetters(limit);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/queues/process")
     public ResponseEntity<Void> processQueues() {
         log.info("POST /api/admin/queues/process - Manually processing queues");
@@ -30,6 +30,15 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse("Validation failed", 400, errors));
     }
 
+    // Parámetros mal formados del cliente (ej: cursor de paginación inválido)
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException ex) {
+        log.warn("Invalid request argument: {}", ex.getMessage());
+        return ResponseEntity
+                .badRequest()
+                .body(new ErrorResponse(ex.getMessage(), 400));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex) {
         log.error("Runtime exception: {}", ex.getMessage());
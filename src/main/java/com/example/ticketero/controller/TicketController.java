@@ -2,19 +2,25 @@ package com.example.ticketero.controller;
 
 import com.example.ticketero.model.dto.request.CreateTicketRequest;
 import com.example.ticketero.model.dto.request.UpdateTicketStatusRequest;
+import com.example.ticketero.model.dto.response.PageResponse;
 import com.example.ticketero.model.dto.response.TicketResponse;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
-import com.example.ticketero.service.MessageService;
+import com.example.ticketero.service.QueueBroadcastService;
+import com.example.ticketero.service.TicketCreationBatcher;
 import com.example.ticketero.service.TicketService;
+import com.example.ticketero.service.TicketWatchService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/tickets")
@@ -23,22 +29,18 @@ import java.util.UUID;
 public class TicketController {
 
     private final TicketService ticketService;
-    private final MessageService messageService;
+    private final TicketCreationBatcher ticketCreationBatcher;
+    private final QueueBroadcastService queueBroadcastService;
+    private final TicketWatchService ticketWatchService;
 
     @PostMapping
-    public ResponseEntity<TicketResponse> createTicket(
+    public CompletableFuture<ResponseEntity<TicketResponse>> createTicket(
             @Valid @RequestBody CreateTicketRequest request
     ) {
         log.info("POST /api/tickets - Creating ticket for nationalId: {}", request.nationalId());
         
-        TicketResponse response = ticketService.createTicket(request);
-        
-        // Programar mensajes automáticos
-        var ticket = ticketService.findById(response.id()).orElseThrow();
-        // Aquí se programarían los mensajes, pero necesitamos la entity
-        // Por simplicidad, lo dejamos comentado por ahora
-        
-        return ResponseEntity.status(201).body(response);
+        return ticketCreationBatcher.submit(request)
+                .thenApply(created -> ResponseEntity.status(201).body(created));
     }
 
     @GetMapping("/{id}")
@@ -61,6 +63,21 @@ public class TicketController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Long-poll: responde cuando el ticket cambia de estado o posición respecto de lo
+     * que el cliente ya conoce (status, positionInQueue), o al vencer el timeout
+     */
+    @GetMapping("/codigo/{codigoReferencia}/watch")
+    public DeferredResult<ResponseEntity<TicketResponse>> watchTicketByCodigoReferencia(
+            @PathVariable UUID codigoReferencia,
+            @RequestParam(required = false) TicketStatus status,
+            @RequestParam(required = false) Integer positionInQueue
+    ) {
+        log.debug("GET /api/tickets/codigo/{}/watch - Waiting for ticket changes", codigoReferencia);
+
+        return ticketWatchService.watch(codigoReferencia, status, positionInQueue);
+    }
+
     @GetMapping("/numero/{numero}")
     public ResponseEntity<TicketResponse> getTicketByNumero(@PathVariable String numero) {
         log.info("GET /api/tickets/numero/{} - Retrieving ticket by number", numero);
@@ -71,18 +88,20 @@ public class TicketController {
     }
 
     @GetMapping
-    public ResponseEntity<List<TicketResponse>> getTickets(
+    public ResponseEntity<PageResponse<TicketResponse>> getTickets(
             @RequestParam(required = false) TicketStatus status,
-            @RequestParam(required = false) QueueType queueType
+            @RequestParam(required = false) QueueType queueType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "${ticketero.pagination.default-page-size:50}") int limit
     ) {
         log.info("GET /api/tickets - Retrieving tickets with status: {}, queueType: {}", status, queueType);
         
         if (status != null) {
-            return ResponseEntity.ok(ticketService.findByStatus(status));
+            return ResponseEntity.ok(ticketService.findByStatus(status, cursor, limit));
         }
         
         if (queueType != null) {
-            return ResponseEntity.ok(ticketService.findActiveTicketsByQueueType(queueType));
+            return ResponseEntity.ok(ticketService.findActiveTicketsByQueueType(queueType, cursor, limit));
         }
         
         // Si no hay filtros, retornar error 400
@@ -101,12 +120,28 @@ public class TicketController {
     }
 
     @GetMapping("/queue/{queueType}")
-    public ResponseEntity<List<TicketResponse>> getActiveTicketsByQueue(
-            @PathVariable QueueType queueType
+    public ResponseEntity<PageResponse<TicketResponse>> getActiveTicketsByQueue(
+            @PathVariable QueueType queueType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "${ticketero.pagination.default-page-size:50}") int limit
     ) {
         log.info("GET /api/tickets/queue/{} - Retrieving active tickets", queueType);
         
-        List<TicketResponse> tickets = ticketService.findActiveTicketsByQueueType(queueType);
+        PageResponse<TicketResponse> tickets = ticketService.findActiveTicketsByQueueType(queueType, cursor, limit);
         return ResponseEntity.ok(tickets);
     }
-}
\ No newline at end of file
+
+    /**
+     * Stream de cambios de una cola para pantallas de sala de espera (Server-Sent Events).
+     * Envía el estado inicial y luego solo deltas, en vez de consultar la cola periódicamente.
+     */
+    @GetMapping(value = "/queue/{queueType}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamQueue(
+            @PathVariable QueueType queueType,
+            @RequestParam String branchOffice
+    ) {
+        log.info("GET /api/tickets/queue/{}/stream - Subscribing display board for branch: {}", queueType, branchOffice);
+
+        return queueBroadcastService.subscribe(branchOffice, queueType);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.ticketero.model.dto.response;
+
+/**
+ * DTO de respuesta para el reenvío de mensajes en dead letter
+ */
+public record MessageReplayResponse(
+    int replayed,
+    long remaining
+) {}
@@ -0,0 +1,27 @@
+package com.example.ticketero.model.dto.response;
+
+import com.example.ticketero.util.PageCursor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * DTO de respuesta para listados paginados por keyset.
+ * nextCursor es null cuando no quedan más resultados.
+ */
+public record PageResponse<T>(
+    List<T> items,
+    String nextCursor
+) {
+
+    /**
+     * Construye la página a partir de hasta limit + 1 filas leídas: la fila extra
+     * solo indica que existe una página siguiente y no se retorna
+     */
+    public static <T> PageResponse<T> of(List<T> rows, int limit, Function<T, PageCursor> cursorOf) {
+        boolean hasNext = rows.size() > limit;
+        List<T> items = hasNext ? List.copyOf(rows.subList(0, limit)) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(items.get(items.size() - 1)).encode() : null;
+        return new PageResponse<>(items, nextCursor);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.ticketero.model.dto.response;
+
+import com.example.ticketero.model.enums.QueueUpdateType;
+import com.example.ticketero.model.enums.TicketStatus;
+
+/**
+ * DTO de actualización de cola para pantallas de sala de espera
+ * (sin datos personales del cliente)
+ */
+public record QueueUpdateResponse(
+    QueueUpdateType type,
+    Long ticketId,
+    String numero,
+    TicketStatus status,
+    Integer assignedModuleNumber
+) {}
@@ -30,6 +30,10 @@ public class Mensaje {
     @Column(name = "fecha_programada", nullable = false)
     private LocalDateTime fechaProgramada;
 
+    // Próximo intento de envío; null cuando el mensaje ya no se envía (ENVIADO o AGOTADO)
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
     @Column(name = "fecha_envio")
     private LocalDateTime fechaEnvio;
 
@@ -56,11 +60,16 @@ public class Mensaje {
         if (this.intentos == null) {
             this.intentos = 0;
         }
+        if (this.nextAttemptAt == null && this.estadoEnvio == EstadoEnvio.PENDIENTE) {
+            this.nextAttemptAt = this.fechaProgramada;
+        }
     }
 
     public enum EstadoEnvio {
         PENDIENTE,
         ENVIADO,
-        FALLIDO
+        FALLIDO,
+        AGOTADO,    // Reintentos agotados (dead letter); se puede reenviar desde la API de administración
+        DESCARTADO  // Obsoleto antes de enviarse (ticket cerrado o aviso ya superado)
     }
 }
\ No newline at end of file
@@ -5,13 +5,20 @@ import com.example.ticketero.model.enums.TicketStatus;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "ticket")
+@Table(
+    name = "ticket",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_ticket_branch_day_numero",
+        columnNames = {"branch_office", "business_date", "numero"}
+    )
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,7 +33,7 @@ public class Ticket {
     @Column(name = "codigo_referencia", nullable = false, unique = true)
     private UUID codigoReferencia;
 
-    @Column(nullable = false, unique = true, length = 10)
+    @Column(nullable = false, length = 10)
     private String numero;
 
     @Column(name = "national_id", nullable = false, length = 20)
@@ -38,6 +45,9 @@ public class Ticket {
     @Column(name = "branch_office", nullable = false, length = 100)
     private String branchOffice;
 
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "queue_type", nullable = false, length = 20)
     private QueueType queueType;
@@ -78,6 +88,9 @@ public class Ticket {
         if (this.codigoReferencia == null) {
             this.codigoReferencia = UUID.randomUUID();
         }
+        if (this.businessDate == null) {
+            this.businessDate = this.createdAt.toLocalDate();
+        }
         if (this.status == null) {
             this.status = TicketStatus.EN_ESPERA;
         }
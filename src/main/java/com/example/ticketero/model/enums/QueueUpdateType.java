@@ -0,0 +1,12 @@
+package com.example.ticketero.model.enums;
+
+/**
+ * Tipos de actualización enviados a las pantallas de sala de espera
+ */
+public enum QueueUpdateType {
+    SNAPSHOT,           // Estado inicial de la cola al conectarse
+    TICKET_WAITING,     // Ticket nuevo o que vuelve a la cola
+    TICKET_PROMOTED,    // Ticket pasa a PROXIMO
+    TICKET_CALLED,      // Ticket llamado a un módulo (ATENDIENDO)
+    TICKET_REMOVED      // Ticket sale de la cola (completado, cancelado, no atendido)
+}
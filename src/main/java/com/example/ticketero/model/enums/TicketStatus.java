@@ -26,4 +26,18 @@ public enum TicketStatus {
     public boolean isActive() {
         return getActiveStatuses().contains(this);
     }
+
+    /**
+     * Estados que ocupan un lugar en la fila (aún no asignados a un asesor)
+     */
+    public static List<TicketStatus> getWaitingStatuses() {
+        return List.of(EN_ESPERA, PROXIMO);
+    }
+
+    /**
+     * Verifica si este estado ocupa un lugar en la fila
+     */
+    public boolean isWaiting() {
+        return getWaitingStatuses().contains(this);
+    }
 }
\ No newline at end of file
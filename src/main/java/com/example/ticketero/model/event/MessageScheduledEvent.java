@@ -0,0 +1,11 @@
+package com.example.ticketero.model.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado al programar un mensaje o su próximo reintento
+ */
+public record MessageScheduledEvent(
+    Long mensajeId,
+    LocalDateTime dueAt
+) {}
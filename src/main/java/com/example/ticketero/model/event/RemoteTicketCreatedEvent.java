@@ -0,0 +1,10 @@
+package com.example.ticketero.model.event;
+
+/**
+ * Ticket creado y confirmado en otra instancia, recibido por el canal de eventos
+ * del cluster. Solo lo consumen los componentes con estado en memoria que deben
+ * seguir a todo el cluster (pantallas, long-poll, caché)
+ */
+public record RemoteTicketCreatedEvent(
+    TicketCreatedEvent event
+) {}
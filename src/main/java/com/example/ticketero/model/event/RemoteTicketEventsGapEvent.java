@@ -0,0 +1,7 @@
+package com.example.ticketero.model.event;
+
+/**
+ * Evento publicado al reconectar el canal de eventos del cluster: mientras estuvo
+ * caído pudieron perderse cambios de otras instancias
+ */
+public record RemoteTicketEventsGapEvent() {}
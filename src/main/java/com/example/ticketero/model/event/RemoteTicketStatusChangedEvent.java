@@ -0,0 +1,9 @@
+package com.example.ticketero.model.event;
+
+/**
+ * Cambio de estado confirmado en otra instancia, recibido por el canal de eventos
+ * del cluster
+ */
+public record RemoteTicketStatusChangedEvent(
+    TicketStatusChangedEvent event
+) {}
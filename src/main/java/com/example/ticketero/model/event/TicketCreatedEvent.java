@@ -0,0 +1,28 @@
+package com.example.ticketero.model.event;
+
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado al crear un ticket
+ */
+public record TicketCreatedEvent(
+    Long ticketId,
+    String numero,
+    String branchOffice,
+    QueueType queueType,
+    LocalDateTime createdAt
+) {
+
+    public static TicketCreatedEvent of(Ticket ticket) {
+        return new TicketCreatedEvent(
+            ticket.getId(),
+            ticket.getNumero(),
+            ticket.getBranchOffice(),
+            ticket.getQueueType(),
+            ticket.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.ticketero.model.event;
+
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado cuando un ticket cambia de estado
+ */
+public record TicketStatusChangedEvent(
+    Long ticketId,
+    String numero,
+    String branchOffice,
+    QueueType queueType,
+    TicketStatus previousStatus,
+    TicketStatus newStatus,
+    Integer assignedModuleNumber,
+    LocalDateTime createdAt
+) {
+
+    /**
+     * Construye el evento a partir del ticket ya actualizado con su nuevo estado
+     */
+    public static TicketStatusChangedEvent of(Ticket ticket, TicketStatus previousStatus) {
+        return new TicketStatusChangedEvent(
+            ticket.getId(),
+            ticket.getNumero(),
+            ticket.getBranchOffice(),
+            ticket.getQueueType(),
+            previousStatus,
+            ticket.getStatus(),
+            ticket.getAssignedModuleNumber(),
+            ticket.getCreatedAt()
+        );
+    }
+}
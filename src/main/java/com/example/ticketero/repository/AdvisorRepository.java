@@ -2,16 +2,19 @@ package com.example.ticketero.repository;
 
 import com.example.ticketero.model.entity.Advisor;
 import com.example.ticketero.model.enums.AdvisorStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AdvisorRepository extends JpaRepository<Advisor, Long> {
+public interface AdvisorRepository extends JpaRepository<Advisor, Long>, AdvisorRepositoryCustom {
 
     // Query derivadas
     List<Advisor> findByStatus(AdvisorStatus status);
@@ -50,4 +53,54 @@ public interface AdvisorRepository extends JpaRepository<Advisor, Long> {
         ORDER BY a.assignedTicketsCount DESC
         """)
     List<Advisor> findBusyAdvisorsOrderByWorkload();
+
+    // Paginación por keyset sobre (createdAt, id) para los listados de la API
+    @Query("""
+        SELECT a FROM Advisor a 
+        WHERE a.createdAt >= :afterCreatedAt 
+        AND (a.createdAt > :afterCreatedAt OR a.id > :afterId) 
+        ORDER BY a.createdAt ASC, a.id ASC
+        """)
+    List<Advisor> findAllAfter(
+        @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    @Query("""
+        SELECT a FROM Advisor a 
+        WHERE a.status = :status 
+        AND a.createdAt >= :afterCreatedAt 
+        AND (a.createdAt > :afterCreatedAt OR a.id > :afterId) 
+        ORDER BY a.createdAt ASC, a.id ASC
+        """)
+    List<Advisor> findByStatusAfter(
+        @Param("status") AdvisorStatus status,
+        @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    // Operaciones atómicas de asignación: una sola sentencia, sin leer-modificar-escribir.
+    // El reclamo del asesor disponible con menor carga está en AdvisorRepositoryCustom
+    @Modifying
+    @Query(value = """
+        UPDATE advisor 
+        SET assigned_tickets_count = assigned_tickets_count + 1, 
+            status = CASE WHEN status = 'AVAILABLE' THEN 'BUSY' ELSE status END, 
+            updated_at = CURRENT_TIMESTAMP 
+        WHERE id = :id
+        """, nativeQuery = true)
+    int incrementAssignedTicketsCount(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = """
+        UPDATE advisor 
+        SET assigned_tickets_count = assigned_tickets_count - 1, 
+            status = CASE WHEN assigned_tickets_count = 1 AND status = 'BUSY' THEN 'AVAILABLE' ELSE status END, 
+            updated_at = CURRENT_TIMESTAMP 
+        WHERE id = :id 
+        AND assigned_tickets_count > 0
+        """, nativeQuery = true)
+    int decrementAssignedTicketsCount(@Param("id") Long id);
 }
\ No newline at end of file
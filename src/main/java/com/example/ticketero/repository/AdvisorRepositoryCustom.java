@@ -0,0 +1,15 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.Advisor;
+
+import java.util.Optional;
+
+public interface AdvisorRepositoryCustom {
+
+    /**
+     * Reclama al asesor disponible con menor carga (omitiendo los bloqueados por otra
+     * instancia) y lo deja BUSY con su contador incrementado, en una sola sentencia.
+     * El asesor retornado refleja el estado posterior al reclamo.
+     */
+    Optional<Advisor> claimNextAvailableAdvisor();
+}
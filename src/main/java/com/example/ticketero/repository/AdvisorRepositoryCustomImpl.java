@@ -0,0 +1,47 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.Advisor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reclamo atómico de asesores: la sentencia solo retorna el ID y el asesor se relee,
+ * porque uno ya cargado en la transacción (ej: al completar un ticket) quedaría con
+ * el estado y la carga previos al reclamo
+ */
+public class AdvisorRepositoryCustomImpl implements AdvisorRepositoryCustom {
+
+    private static final String CLAIM_NEXT_AVAILABLE = """
+        UPDATE advisor 
+        SET assigned_tickets_count = assigned_tickets_count + 1, 
+            status = 'BUSY', 
+            updated_at = CURRENT_TIMESTAMP 
+        WHERE id = (
+            SELECT id FROM advisor 
+            WHERE status = 'AVAILABLE' 
+            ORDER BY assigned_tickets_count ASC, id ASC 
+            LIMIT 1 
+            FOR UPDATE SKIP LOCKED
+        ) 
+        AND status = 'AVAILABLE' 
+        RETURNING id
+        """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public Optional<Advisor> claimNextAvailableAdvisor() {
+        List<Long> claimed = entityManager.createNativeQuery(CLAIM_NEXT_AVAILABLE, Long.class).getResultList();
+        if (claimed.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(ManagedEntities.reload(entityManager, Advisor.class, claimed.get(0)));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ticketero.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityKey;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Lectura de entidades modificadas por sentencias nativas (UPDATE ... RETURNING).
+ * Hibernate no sincroniza el contexto de persistencia con esas sentencias: una entidad
+ * ya cargada en la transacción conserva el estado previo al UPDATE.
+ */
+final class ManagedEntities {
+
+    private ManagedEntities() {
+    }
+
+    /**
+     * Retorna la entidad con el estado actual de la base de datos, con una sola lectura:
+     * si ya estaba en el contexto se refresca; si no, se carga
+     */
+    static <T> T reload(EntityManager entityManager, Class<T> type, Object id) {
+        T entity = entityManager.getReference(type, id);
+        if (Hibernate.isInitialized(entity)) {
+            entityManager.refresh(entity);
+        } else {
+            Hibernate.initialize(entity);
+        }
+        return entity;
+    }
+
+    /**
+     * Retorna las entidades, en el orden de ids, con el estado actual de la base de datos:
+     * las que ya estaban en el contexto se refrescan y el resto se carga en una sola consulta
+     */
+    static <T> List<T> reloadAll(EntityManager entityManager, Class<T> type, List<?> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Session session = entityManager.unwrap(Session.class);
+        Set<Object> loaded = ((Set<?>) session.getStatistics().getEntityKeys()).stream()
+                .map(EntityKey.class::cast)
+                .filter(key -> key.getEntityName().equals(type.getName()))
+                .map(EntityKey::getIdentifier)
+                .collect(Collectors.toSet());
+        for (Object id : ids) {
+            if (loaded.contains(id)) {
+                entityManager.refresh(entityManager.find(type, id));
+            }
+        }
+        return session.byMultipleIds(type)
+                .enableSessionCheck(true)
+                .multiLoad(ids);
+    }
+}
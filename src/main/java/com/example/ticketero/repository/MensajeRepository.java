@@ -2,16 +2,20 @@ package com.example.ticketero.repository;
 
 import com.example.ticketero.model.entity.Mensaje;
 import com.example.ticketero.model.enums.MessageTemplate;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface MensajeRepository extends JpaRepository<Mensaje, Long> {
+public interface MensajeRepository extends JpaRepository<Mensaje, Long>, MensajeRepositoryCustom {
 
     // Query derivadas
     List<Mensaje> findByEstadoEnvio(Mensaje.EstadoEnvio estadoEnvio);
@@ -22,25 +26,92 @@ public interface MensajeRepository extends JpaRepository<Mensaje, Long> {
     
     long countByEstadoEnvio(Mensaje.EstadoEnvio estadoEnvio);
 
-    // Queries custom para el scheduler
+    // Reclamo de un lote de mensajes cuyo próximo intento venció (pendientes y reintentos).
+    // Rango sobre idx_mensaje_next_attempt; las filas bloqueadas por otra instancia se omiten.
+    // El reclamo se confirma en su propia transacción corriendo next_attempt_at hasta leaseUntil:
+    // los envíos no retienen bloqueos ni conexión, otra instancia no vuelve a reclamar el mensaje
+    // mientras se envía, y si la instancia cae el mensaje vuelve a vencer al terminar el plazo.
+    // Trae en la misma sentencia los campos del ticket que usan las plantillas (sin un SELECT por mensaje).
+    @Transactional
+    @Query(value = """
+        WITH claimed AS (
+            UPDATE mensaje 
+            SET next_attempt_at = :leaseUntil 
+            WHERE id IN (
+                SELECT id FROM mensaje 
+                WHERE estado_envio IN ('PENDIENTE', 'FALLIDO') 
+                AND next_attempt_at <= :now 
+                ORDER BY next_attempt_at ASC 
+                LIMIT :limit 
+                FOR UPDATE SKIP LOCKED
+            ) 
+            RETURNING id, ticket_id, plantilla, intentos
+        ) 
+        SELECT c.id AS id, 
+               c.plantilla AS plantilla, 
+               c.intentos AS intentos, 
+               t.status AS ticketStatus, 
+               t.numero AS numero, 
+               t.queue_type AS queueType, 
+               t.position_in_queue AS positionInQueue, 
+               t.estimated_wait_minutes AS estimatedWaitMinutes, 
+               t.assigned_module_number AS assignedModuleNumber 
+        FROM claimed c 
+        JOIN ticket t ON t.id = c.ticket_id
+        """, nativeQuery = true)
+    List<DueMessage> claimDueMessages(
+        @Param("now") LocalDateTime now,
+        @Param("leaseUntil") LocalDateTime leaseUntil,
+        @Param("limit") int limit
+    );
+
+    // Descarta los mensajes de un ticket que aún no se enviaron, para las plantillas indicadas
+    @Modifying
     @Query("""
-        SELECT m FROM Mensaje m 
-        WHERE m.estadoEnvio = 'PENDIENTE' 
-        AND m.fechaProgramada <= :now 
-        ORDER BY m.fechaProgramada ASC
+        UPDATE Mensaje m 
+        SET m.estadoEnvio = 'DESCARTADO', m.nextAttemptAt = NULL 
+        WHERE m.ticket.id = :ticketId 
+        AND m.estadoEnvio IN ('PENDIENTE', 'FALLIDO') 
+        AND m.plantilla IN :plantillas
         """)
-    List<Mensaje> findPendingMessagesReadyToSend(@Param("now") LocalDateTime now);
+    int discardPendingMessages(
+        @Param("ticketId") Long ticketId,
+        @Param("plantillas") Collection<MessageTemplate> plantillas
+    );
 
+    // Próximos vencimientos (pendientes y reintentos) para cargar el timing wheel del scheduler.
+    // Rango sobre idx_mensaje_next_attempt; solo trae el ID y el instante de cada mensaje
     @Query("""
-        SELECT m FROM Mensaje m 
-        WHERE m.estadoEnvio = 'FALLIDO' 
-        AND m.intentos < :maxRetries 
-        AND m.fechaProgramada <= :now 
-        ORDER BY m.fechaProgramada ASC
+        SELECT m.id AS id, m.nextAttemptAt AS dueAt FROM Mensaje m 
+        WHERE m.estadoEnvio IN ('PENDIENTE', 'FALLIDO') 
+        AND m.nextAttemptAt < :until 
+        ORDER BY m.nextAttemptAt ASC
         """)
-    List<Mensaje> findFailedMessagesForRetry(
-        @Param("maxRetries") int maxRetries,
-        @Param("now") LocalDateTime now
+    List<ScheduledDelivery> findDeliveriesDueBefore(
+        @Param("until") LocalDateTime until,
+        Pageable pageable
+    );
+
+    // Reenvío de mensajes en dead letter: vuelven a PENDIENTE con todos sus reintentos.
+    // Retorna los IDs reenviados para agendarlos en el scheduler
+    @Transactional
+    @Query(value = """
+        UPDATE mensaje 
+        SET estado_envio = 'PENDIENTE', 
+            intentos = 0, 
+            next_attempt_at = :now 
+        WHERE id IN (
+            SELECT id FROM mensaje 
+            WHERE estado_envio = 'AGOTADO' 
+            ORDER BY fecha_programada ASC 
+            LIMIT :limit 
+            FOR UPDATE SKIP LOCKED
+        ) 
+        RETURNING id
+        """, nativeQuery = true)
+    List<Long> replayDeadLetters(
+        @Param("now") LocalDateTime now,
+        @Param("limit") int limit
     );
 
     @Query("""
@@ -52,4 +123,31 @@ public interface MensajeRepository extends JpaRepository<Mensaje, Long> {
         @Param("ticketId") Long ticketId,
         @Param("plantilla") MessageTemplate plantilla
     );
-}
\ No newline at end of file
+
+    interface ScheduledDelivery {
+        Long getId();
+
+        LocalDateTime getDueAt();
+    }
+
+    // Mensaje reclamado con los datos del ticket necesarios para armar su contenido
+    interface DueMessage {
+        Long getId();
+
+        String getPlantilla();
+
+        int getIntentos();
+
+        String getTicketStatus();
+
+        String getNumero();
+
+        String getQueueType();
+
+        Integer getPositionInQueue();
+
+        Integer getEstimatedWaitMinutes();
+
+        Integer getAssignedModuleNumber();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.Mensaje;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MensajeRepositoryCustom {
+
+    /**
+     * Registra el resultado de un lote de envíos en un único batch JDBC
+     * (un UPDATE por mensaje, un solo viaje a la base de datos)
+     */
+    void saveDispatchResults(List<DispatchResult> results);
+
+    /**
+     * Inserta mensajes nuevos en un único batch JDBC y les asigna el id generado
+     */
+    void insertAll(List<Mensaje> mensajes);
+
+    // Estado de un mensaje después de un intento de envío
+    record DispatchResult(
+        Long id,
+        Mensaje.EstadoEnvio estadoEnvio,
+        int intentos,
+        String telegramMessageId,
+        LocalDateTime fechaEnvio,
+        LocalDateTime nextAttemptAt
+    ) {}
+}
@@ -0,0 +1,108 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.Mensaje;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escritura de los resultados de despacho con JDBC: los mensajes se reclaman como
+ * proyección (sin entidades en la sesión), así que no hay flush de Hibernate que los
+ * escriba. Las altas por lote también van por JDBC porque Hibernate no agrupa INSERT
+ * con ids IDENTITY. JdbcTemplate usa la conexión de la transacción JPA en curso.
+ * Los resultados de despacho se escriben en su propia transacción corta, después de
+ * los envíos y separada del reclamo.
+ */
+@RequiredArgsConstructor
+public class MensajeRepositoryCustomImpl implements MensajeRepositoryCustom {
+
+    // Solo sobre mensajes aún reclamables: no pisa un DESCARTADO escrito durante el envío
+    private static final String UPDATE_DISPATCH_RESULT = """
+        UPDATE mensaje 
+        SET estado_envio = ?, 
+            intentos = ?, 
+            telegram_message_id = ?, 
+            fecha_envio = ?, 
+            next_attempt_at = ? 
+        WHERE id = ? 
+        AND estado_envio IN ('PENDIENTE', 'FALLIDO')
+        """;
+
+    private static final String INSERT_MENSAJE = """
+        INSERT INTO mensaje (
+            ticket_id, plantilla, estado_envio, fecha_programada, next_attempt_at, intentos, created_at
+        ) VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void saveDispatchResults(List<DispatchResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_DISPATCH_RESULT, results, results.size(), (ps, result) -> {
+            ps.setString(1, result.estadoEnvio().name());
+            ps.setInt(2, result.intentos());
+            ps.setString(3, result.telegramMessageId());
+            setTimestamp(ps, 4, result.fechaEnvio());
+            setTimestamp(ps, 5, result.nextAttemptAt());
+            ps.setLong(6, result.id());
+        });
+    }
+
+    @Override
+    public void insertAll(List<Mensaje> mensajes) {
+        if (mensajes.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_MENSAJE, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Mensaje mensaje = mensajes.get(i);
+                        ps.setLong(1, mensaje.getTicket().getId());
+                        ps.setString(2, mensaje.getPlantilla().name());
+                        ps.setString(3, mensaje.getEstadoEnvio().name());
+                        setTimestamp(ps, 4, mensaje.getFechaProgramada());
+                        setTimestamp(ps, 5, mensaje.getNextAttemptAt());
+                        ps.setInt(6, mensaje.getIntentos());
+                        setTimestamp(ps, 7, mensaje.getCreatedAt());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return mensajes.size();
+                    }
+                },
+                keyHolder);
+
+        // Las claves generadas llegan en el orden del batch
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < mensajes.size(); i++) {
+            mensajes.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.TIMESTAMP);
+        } else {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.TicketNumberCounter;
+import com.example.ticketero.model.enums.QueueType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface TicketNumberCounterRepository extends JpaRepository<TicketNumberCounter, Long> {
+
+    // Bloquea el contador para reservar un bloque de números sin colisiones entre instancias
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<TicketNumberCounter> findByBranchOfficeAndQueueTypeAndBusinessDate(
+        String branchOffice,
+        QueueType queueType,
+        LocalDate businessDate
+    );
+}
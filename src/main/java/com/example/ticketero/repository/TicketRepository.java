@@ -1,10 +1,15 @@
 package com.example.ticketero.repository;
 
+import com.example.ticketero.model.dto.response.TicketResponse;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,14 +17,29 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+public interface TicketRepository extends JpaRepository<Ticket, Long>, TicketRepositoryCustom {
+
+    // Proyección directa a TicketResponse: el asesor se resuelve con LEFT JOIN en la misma
+    // sentencia y no se cargan entidades administradas
+    String TICKET_RESPONSE_SELECT = """
+        SELECT new com.example.ticketero.model.dto.response.TicketResponse(
+            t.id, t.codigoReferencia, t.numero, t.nationalId, t.telefono, 
+            t.branchOffice, t.queueType, t.status, t.positionInQueue, t.estimatedWaitMinutes, 
+            a.id, a.name, t.assignedModuleNumber, t.createdAt, t.updatedAt) 
+        FROM Ticket t 
+        LEFT JOIN t.assignedAdvisor a 
+        """;
+
+    String EXPORT_FETCH_SIZE = "500";
 
     // Query derivadas (Spring genera automáticamente el SQL)
     Optional<Ticket> findByCodigoReferencia(UUID codigoReferencia);
     
-    Optional<Ticket> findByNumero(String numero);
+    // El número se repite entre sucursales y días: se retorna el emitido más recientemente
+    Optional<Ticket> findFirstByNumeroOrderByCreatedAtDesc(String numero);
     
     List<Ticket> findByStatus(TicketStatus status);
     
@@ -29,6 +49,8 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     
     List<Ticket> findByStatusIn(List<TicketStatus> statuses);
     
+    List<Ticket> findByStatusInOrderByCreatedAtAscIdAsc(List<TicketStatus> statuses);
+    
     List<Ticket> findByQueueTypeAndStatusOrderByCreatedAtAsc(QueueType queueType, TicketStatus status);
     
     long countByStatus(TicketStatus status);
@@ -38,39 +60,104 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     boolean existsByNumero(String numero);
 
     // Queries custom con @Query
-    @Query("""
-        SELECT t FROM Ticket t 
+    // Paginación por keyset sobre (createdAt, id): cada página es un rango del índice
+    // a partir del cursor; el Pageable solo aporta el límite de filas
+    @Query(TICKET_RESPONSE_SELECT + """
+        WHERE t.status = :status 
+        AND t.createdAt >= :afterCreatedAt 
+        AND (t.createdAt > :afterCreatedAt OR t.id > :afterId) 
+        ORDER BY t.createdAt ASC, t.id ASC
+        """)
+    List<TicketResponse> findResponsesByStatusAfter(
+        @Param("status") TicketStatus status,
+        @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    @Query(TICKET_RESPONSE_SELECT + """
         WHERE t.status IN :statuses 
         AND t.queueType = :queueType 
-        ORDER BY t.createdAt ASC
+        AND t.createdAt >= :afterCreatedAt 
+        AND (t.createdAt > :afterCreatedAt OR t.id > :afterId) 
+        ORDER BY t.createdAt ASC, t.id ASC
         """)
-    List<Ticket> findActiveTicketsByQueueType(
+    List<TicketResponse> findActiveResponsesByQueueTypeAfter(
+        @Param("queueType") QueueType queueType,
+        @Param("statuses") List<TicketStatus> statuses,
+        @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    @Query(TICKET_RESPONSE_SELECT + """
+        WHERE t.status IN :statuses 
+        AND t.branchOffice = :branchOffice 
+        AND t.queueType = :queueType 
+        ORDER BY t.createdAt ASC, t.id ASC
+        """)
+    List<TicketResponse> findActiveResponsesByBranchOfficeAndQueueType(
+        @Param("branchOffice") String branchOffice,
         @Param("queueType") QueueType queueType,
         @Param("statuses") List<TicketStatus> statuses
     );
 
+    // Cantidad de tickets por (sucursal, tipo de cola) para reconciliar los contadores en memoria
     @Query("""
-        SELECT t FROM Ticket t 
+        SELECT t.branchOffice AS branchOffice, t.queueType AS queueType, COUNT(t) AS total 
+        FROM Ticket t 
+        WHERE t.status IN :statuses 
+        GROUP BY t.branchOffice, t.queueType
+        """)
+    List<QueueCount> countByBranchOfficeAndQueueType(@Param("statuses") List<TicketStatus> statuses);
+
+    // Exportación: filas proyectadas leídas por cursor JDBC en bloques de EXPORT_FETCH_SIZE.
+    // El Stream debe consumirse y cerrarse dentro de una transacción
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(TICKET_RESPONSE_SELECT + """
         WHERE t.createdAt >= :startDate 
         AND t.createdAt < :endDate 
-        ORDER BY t.createdAt DESC
+        ORDER BY t.createdAt ASC, t.id ASC
         """)
-    List<Ticket> findTicketsByDateRange(
+    Stream<TicketResponse> streamResponsesCreatedBetween(
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
 
+    // Métricas del dashboard en una sola consulta: cantidad y minutos de espera acumulados
+    // por (tipo de cola, estado) para los tickets creados en el rango.
+    // Rango semiabierto sobre created_at (sin funciones sobre la columna) para usar los índices;
+    // los límites del día hábil los entrega BusinessCalendar
     @Query(value = """
-        SELECT COUNT(*) FROM ticket 
-        WHERE DATE(created_at) = CURRENT_DATE
-        """, nativeQuery = true)
-    long countTicketsToday();
-
-    @Query(value = """
-        SELECT AVG(EXTRACT(EPOCH FROM (updated_at - created_at))/60) 
+        SELECT queue_type AS queueType, 
+               status AS status, 
+               COUNT(*) AS total, 
+               COALESCE(SUM(EXTRACT(EPOCH FROM (updated_at - created_at)) / 60), 0) AS waitMinutesSum 
         FROM ticket 
-        WHERE status = 'COMPLETADO' 
-        AND DATE(created_at) = CURRENT_DATE
+        WHERE created_at >= :startDate 
+        AND created_at < :endDate 
+        GROUP BY queue_type, status
         """, nativeQuery = true)
-    Double getAverageWaitTimeToday();
-}
\ No newline at end of file
+    List<QueueStatusCount> countByQueueTypeAndStatusBetween(
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
+
+    interface QueueCount {
+        String getBranchOffice();
+
+        QueueType getQueueType();
+
+        long getTotal();
+    }
+
+    interface QueueStatusCount {
+        String getQueueType();
+
+        String getStatus();
+
+        long getTotal();
+
+        double getWaitMinutesSum();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+
+import java.util.List;
+
+public interface TicketRepositoryCustom {
+
+    /**
+     * Inserta los tickets en un único batch JDBC y les asigna el id generado.
+     * No pasa por Hibernate: codigoReferencia, fechas y estado deben venir informados.
+     */
+    void insertAll(List<Ticket> tickets);
+
+    /**
+     * Reclama para asignar hasta limit tickets en espera de la cola, los más antiguos
+     * primero. Las filas bloqueadas por otra instancia se omiten y el bloqueo dura hasta
+     * el commit: los reclamados que no se asignan quedan libres sin cambios.
+     */
+    List<Ticket> claimWaitingTickets(String branchOffice, QueueType queueType, int limit);
+
+    /**
+     * Promueve a PROXIMO los tickets en espera dentro de las primeras proximoThreshold
+     * posiciones de su cola, sin reescribir posiciones (modo en que la posición se
+     * calcula al leer). Retorna los tickets promovidos con su estado ya actualizado,
+     * para publicar sus cambios de estado.
+     */
+    List<Ticket> promoteProximoTickets(int proximoThreshold);
+
+    /**
+     * Recalcula posiciones y promoción a PROXIMO de todas las colas en una sola sentencia
+     * (modo en que la posición se persiste). Solo escribe las filas cuya posición o estado
+     * cambia y, como promoteProximoTickets, retorna los tickets promovidos a PROXIMO.
+     */
+    List<Ticket> updateQueuePositions(int proximoThreshold);
+}
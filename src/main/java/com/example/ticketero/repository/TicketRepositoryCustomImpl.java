@@ -0,0 +1,172 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Alta de tickets por lotes con JDBC: con ids IDENTITY Hibernate no agrupa los
+ * INSERT, así que un lote pasaría a ser un viaje a la base de datos por ticket.
+ * JdbcTemplate usa la conexión de la transacción JPA en curso.
+ * El reclamo y las promociones a PROXIMO retornan solo IDs y releen los tickets en una
+ * consulta: uno ya cargado en la transacción (ej: al reconstruir el índice) quedaría
+ * con el estado leído entonces.
+ */
+@RequiredArgsConstructor
+public class TicketRepositoryCustomImpl implements TicketRepositoryCustom {
+
+    private static final String INSERT_TICKET = """
+        INSERT INTO ticket (
+            codigo_referencia, numero, national_id, telefono, branch_office, business_date,
+            queue_type, status, position_in_queue, estimated_wait_minutes, created_at, updated_at
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    // Rango sobre idx_ticket_waiting_created_at (índice parcial por cola en orden de llegada)
+    private static final String CLAIM_WAITING = """
+        SELECT id FROM ticket 
+        WHERE branch_office = :branchOffice 
+        AND queue_type = :queueType 
+        AND status IN ('EN_ESPERA', 'PROXIMO') 
+        ORDER BY created_at ASC, id ASC 
+        LIMIT :limit 
+        FOR UPDATE SKIP LOCKED
+        """;
+
+    private static final String PROMOTE_PROXIMO = """
+        UPDATE ticket t 
+        SET status = 'PROXIMO', 
+            updated_at = CURRENT_TIMESTAMP 
+        FROM (
+            SELECT id, ROW_NUMBER() OVER (
+                PARTITION BY branch_office, queue_type 
+                ORDER BY created_at ASC, id ASC
+            ) AS position 
+            FROM ticket 
+            WHERE status IN ('EN_ESPERA', 'PROXIMO')
+        ) ranked 
+        WHERE t.id = ranked.id 
+        AND t.status = 'EN_ESPERA' 
+        AND ranked.position <= :proximoThreshold 
+        RETURNING t.id
+        """;
+
+    // Las filas que otra instancia pasó a ATENDIENDO quedan excluidas al re-evaluar el estado.
+    // ranked.status es el estado previo: RETURNING de un UPDATE solo ve los valores nuevos
+    private static final String UPDATE_QUEUE_POSITIONS = """
+        WITH updated AS (
+            UPDATE ticket t 
+            SET position_in_queue = ranked.position, 
+                status = CASE WHEN ranked.position <= :proximoThreshold AND t.status = 'EN_ESPERA' 
+                              THEN 'PROXIMO' ELSE t.status END, 
+                updated_at = CURRENT_TIMESTAMP 
+            FROM (
+                SELECT id, status, ROW_NUMBER() OVER (
+                    PARTITION BY branch_office, queue_type 
+                    ORDER BY created_at ASC, id ASC
+                ) AS position 
+                FROM ticket 
+                WHERE status IN ('EN_ESPERA', 'PROXIMO')
+            ) ranked 
+            WHERE t.id = ranked.id 
+            AND t.status IN ('EN_ESPERA', 'PROXIMO') 
+            AND (t.position_in_queue <> ranked.position 
+                 OR (ranked.position <= :proximoThreshold AND t.status = 'EN_ESPERA'))
+            RETURNING t.id, t.status, ranked.status AS previous_status
+        )
+        SELECT id FROM updated 
+        WHERE status = 'PROXIMO' 
+        AND previous_status = 'EN_ESPERA'
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertAll(List<Ticket> tickets) {
+        if (tickets.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_TICKET, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Ticket ticket = tickets.get(i);
+                        ps.setObject(1, ticket.getCodigoReferencia());
+                        ps.setString(2, ticket.getNumero());
+                        ps.setString(3, ticket.getNationalId());
+                        ps.setString(4, ticket.getTelefono());
+                        ps.setString(5, ticket.getBranchOffice());
+                        ps.setDate(6, Date.valueOf(ticket.getBusinessDate()));
+                        ps.setString(7, ticket.getQueueType().name());
+                        ps.setString(8, ticket.getStatus().name());
+                        ps.setInt(9, ticket.getPositionInQueue());
+                        ps.setInt(10, ticket.getEstimatedWaitMinutes());
+                        ps.setTimestamp(11, Timestamp.valueOf(ticket.getCreatedAt()));
+                        ps.setTimestamp(12, Timestamp.valueOf(ticket.getUpdatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return tickets.size();
+                    }
+                },
+                keyHolder);
+
+        // Las claves generadas llegan en el orden del batch
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < tickets.size(); i++) {
+            tickets.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public List<Ticket> claimWaitingTickets(String branchOffice, QueueType queueType, int limit) {
+        List<Long> claimed = entityManager.createNativeQuery(CLAIM_WAITING, Long.class)
+                .setParameter("branchOffice", branchOffice)
+                .setParameter("queueType", queueType.name())
+                .setParameter("limit", limit)
+                .getResultList();
+        return ManagedEntities.reloadAll(entityManager, Ticket.class, claimed);
+    }
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public List<Ticket> promoteProximoTickets(int proximoThreshold) {
+        List<Long> promoted = entityManager.createNativeQuery(PROMOTE_PROXIMO, Long.class)
+                .setParameter("proximoThreshold", proximoThreshold)
+                .getResultList();
+        return ManagedEntities.reloadAll(entityManager, Ticket.class, promoted);
+    }
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public List<Ticket> updateQueuePositions(int proximoThreshold) {
+        List<Long> promoted = entityManager.createNativeQuery(UPDATE_QUEUE_POSITIONS, Long.class)
+                .setParameter("proximoThreshold", proximoThreshold)
+                .getResultList();
+        return ManagedEntities.reloadAll(entityManager, Ticket.class, promoted);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.service.DashboardMetricsStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler que reconcilia las métricas en memoria del dashboard con la base de datos
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardMetricsScheduler {
+
+    private final DashboardMetricsStore metricsStore;
+
+    @Scheduled(fixedRateString = "${ticketero.dashboard.reconciliation-interval-ms:60000}",
+               initialDelayString = "${ticketero.dashboard.reconciliation-interval-ms:60000}")
+    public void reconcileMetrics() {
+        try {
+            metricsStore.reconcile();
+        } catch (Exception e) {
+            log.error("Error reconciling dashboard metrics", e);
+        }
+    }
+}
@@ -1,127 +1,135 @@
 package com.example.ticketero.scheduler;
 
-import com.example.ticketero.model.entity.Mensaje;
+import com.example.ticketero.model.event.MessageScheduledEvent;
+import com.example.ticketero.repository.MensajeRepository.ScheduledDelivery;
+import com.example.ticketero.service.MessageDispatcher;
 import com.example.ticketero.service.MessageService;
-import lombok.RequiredArgsConstructor;
+import com.example.ticketero.util.TimingWheel;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Scheduler que procesa mensajes programados para Telegram
- * Se ejecuta cada 60 segundos para enviar mensajes pendientes
+ * Scheduler que envía los mensajes programados para Telegram en el segundo en que vencen
+ * - Un timing wheel en memoria guarda los próximos vencimientos: se alimenta al
+ *   programar un mensaje o un reintento, y cada tick solo revisa memoria
+ * - Cuando vence algún mensaje se despacha por lotes desde la base de datos, que
+ *   sigue siendo la fuente de verdad (reclamo con FOR UPDATE SKIP LOCKED)
+ * - El wheel se recarga desde la base de datos al iniciar y cada rehydrate-interval-ms,
+ *   lo que recoge los mensajes programados por otras instancias o por una instancia caída
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class MessageScheduler {
 
+    // 60 ranuras por nivel y 3 niveles: con ticks de 1 s el horizonte es de ~2,5 días
+    private static final int WHEEL_SIZE = 60;
+    private static final int WHEEL_LEVELS = 3;
+
+    private final MessageDispatcher messageDispatcher;
     private final MessageService messageService;
-    private static final int MAX_RETRIES = 3;
+    private final TimingWheel<Long> wheel;
+    private final int rehydrateLimit;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "message-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+
+    public MessageScheduler(MessageDispatcher messageDispatcher,
+                            MessageService messageService,
+                            @Value("${ticketero.messages.timer-tick-ms:1000}") long tickMillis,
+                            @Value("${ticketero.messages.rehydrate-limit:50000}") int rehydrateLimit) {
+        this.messageDispatcher = messageDispatcher;
+        this.messageService = messageService;
+        this.wheel = new TimingWheel<>(tickMillis, WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+        this.rehydrateLimit = rehydrateLimit;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageScheduled(MessageScheduledEvent event) {
+        // Fuera del horizonte queda en la base de datos hasta una recarga posterior
+        wheel.schedule(event.mensajeId(), epochMillis(event.dueAt()));
+    }
 
     /**
-     * Procesa mensajes pendientes cada 60 segundos
-     * - Envía mensajes programados que están listos
-     * - Reintenta mensajes fallidos (máximo 3 intentos)
+     * Avanza el wheel; si venció algún mensaje, despacha los lotes vencidos
      */
-    @Scheduled(fixedRate = 60000) // 60 segundos
-    public void processMessages() {
-        try {
-            log.debug("Message scheduler executing...");
-            
-            // Procesar mensajes pendientes
-            processPendingMessages();
-            
-            // Reintentar mensajes fallidos
-            retryFailedMessages();
-            
-        } catch (Exception e) {
-            log.error("Error processing messages in scheduler", e);
+    @Scheduled(fixedRateString = "${ticketero.messages.timer-tick-ms:1000}")
+    public void tick() {
+        if (!wheel.advance(System.currentTimeMillis()).isEmpty()) {
+            requestDispatch();
         }
     }
 
-    private void processPendingMessages() {
-        List<Mensaje> pendingMessages = messageService.findPendingMessages();
-        
-        if (!pendingMessages.isEmpty()) {
-            log.info("Processing {} pending messages", pendingMessages.size());
-            
-            for (Mensaje mensaje : pendingMessages) {
-                try {
-                    sendMessage(mensaje);
-                } catch (Exception e) {
-                    log.error("Failed to send message {}: {}", mensaje.getId(), e.getMessage());
-                    messageService.markMessageAsFailed(mensaje.getId());
+    /**
+     * Carga en el wheel los mensajes que vencen dentro del horizonte
+     * (corre al iniciar y luego periódicamente)
+     */
+    @Scheduled(fixedRateString = "${ticketero.messages.rehydrate-interval-ms:300000}")
+    public void rehydrate() {
+        try {
+            LocalDateTime until = LocalDateTime.now().plus(Duration.ofMillis(wheel.horizonMillis()));
+            List<ScheduledDelivery> deliveries = messageService.findDeliveriesDueBefore(until, rehydrateLimit);
+
+            int added = 0;
+            for (ScheduledDelivery delivery : deliveries) {
+                if (wheel.schedule(delivery.getId(), epochMillis(delivery.getDueAt()))) {
+                    added++;
                 }
             }
+            log.debug("Message timer rehydrated: {} new deliveries, {} scheduled", added, wheel.size());
+        } catch (Exception e) {
+            log.error("Error rehydrating message timer", e);
         }
     }
 
-    private void retryFailedMessages() {
-        List<Mensaje> failedMessages = messageService.findFailedMessagesForRetry(MAX_RETRIES);
-        
-        if (!failedMessages.isEmpty()) {
-            log.info("Retrying {} failed messages", failedMessages.size());
-            
-            for (Mensaje mensaje : failedMessages) {
-                try {
-                    sendMessage(mensaje);
-                } catch (Exception e) {
-                    log.error("Retry failed for message {}: {}", mensaje.getId(), e.getMessage());
-                    messageService.markMessageAsFailed(mensaje.getId());
-                }
-            }
+    /**
+     * Encola un despacho salvo que ya haya uno pendiente
+     */
+    public void requestDispatch() {
+        if (dispatchPending.compareAndSet(false, true)) {
+            executor.execute(this::processMessages);
+        }
+    }
+
+    /**
+     * Envía por lotes los mensajes vencidos (pendientes y reintentos),
+     * siguiendo con el lote siguiente mientras los lotes salgan completos
+     */
+    private void processMessages() {
+        dispatchPending.set(false);
+        try {
+            int batchSize = messageDispatcher.getBatchSize();
+            int dispatched;
+            do {
+                dispatched = messageDispatcher.dispatchDueMessages();
+            } while (dispatched == batchSize);
+
+        } catch (Exception e) {
+            log.error("Error processing messages in scheduler", e);
         }
     }
 
-    private void sendMessage(Mensaje mensaje) {
-        // Simular envío de mensaje a Telegram
-        // En una implementación real, aquí se haría la llamada a la API de Telegram
-        
-        String messageContent = buildMessageContent(mensaje);
-        log.info("Sending Telegram message: {}", messageContent);
-        
-        // Simular ID de mensaje de Telegram
-        String telegramMessageId = "msg_" + System.currentTimeMillis();
-        
-        // Marcar como enviado
-        messageService.markMessageAsSent(mensaje.getId(), telegramMessageId);
-        
-        log.info("Message {} sent successfully with Telegram ID: {}", 
-                mensaje.getId(), telegramMessageId);
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
-    private String buildMessageContent(Mensaje mensaje) {
-        var ticket = mensaje.getTicket();
-        
-        return switch (mensaje.getPlantilla()) {
-            case TOTEM_TICKET_CREADO -> String.format(
-                "🎫 Ticket creado: %s\n" +
-                "Cola: %s\n" +
-                "Posición: %d\n" +
-                "Tiempo estimado: %d minutos",
-                ticket.getNumero(),
-                ticket.getQueueType().getDisplayName(),
-                ticket.getPositionInQueue(),
-                ticket.getEstimatedWaitMinutes()
-            );
-            
-            case TOTEM_PROXIMO_TURNO -> String.format(
-                "⏰ ¡Tu turno se acerca!\n" +
-                "Ticket: %s\n" +
-                "Prepárate, serás atendido pronto.",
-                ticket.getNumero()
-            );
-            
-            case TOTEM_ES_TU_TURNO -> String.format(
-                "🔔 ¡ES TU TURNO!\n" +
-                "Ticket: %s\n" +
-                "Dirígete al módulo %d",
-                ticket.getNumero(),
-                ticket.getAssignedModuleNumber() != null ? ticket.getAssignedModuleNumber() : 0
-            );
-        };
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,106 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.model.event.TicketCreatedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import com.example.ticketero.service.QueueProcessorService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Despachador de colas por eventos
+ * - Despierta al procesador apenas se confirma un ticket nuevo, un ticket
+ *   cerrado o un asesor disponible, sin esperar al scheduler
+ * - Ejecuta en un único hilo y agrupa las solicitudes que llegan mientras
+ *   hay una ejecución en curso en una sola ejecución siguiente
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueueDispatcher {
+
+    private final QueueProcessorService queueProcessorService;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "queue-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    private final AtomicBoolean reconciliationPending = new AtomicBoolean();
+
+    @Value("${ticketero.queue.event-dispatch-enabled:true}")
+    private boolean eventDispatchEnabled;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketCreated(TicketCreatedEvent event) {
+        if (eventDispatchEnabled) {
+            requestDispatch();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        // Solo un ticket que vuelve a la cola o que se cierra cambia lo que se puede asignar;
+        // asignaciones y promociones las produce el propio despacho
+        boolean requeuedOrClosed = event.newStatus() == TicketStatus.EN_ESPERA || !event.newStatus().isActive();
+        if (eventDispatchEnabled && requeuedOrClosed) {
+            requestDispatch();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdvisorStatusChanged(AdvisorStatusChangedEvent event) {
+        if (eventDispatchEnabled && event.newStatus() == AdvisorStatus.AVAILABLE) {
+            requestDispatch();
+        }
+    }
+
+    /**
+     * Ejecución periódica: con despacho por eventos reconcilia el índice con
+     * la base de datos; sin él, solo procesa las colas como antes
+     */
+    public void requestScheduledRun() {
+        if (eventDispatchEnabled) {
+            reconciliationPending.set(true);
+        }
+        requestDispatch();
+    }
+
+    /**
+     * Encola una ejecución salvo que ya haya una pendiente
+     */
+    public void requestDispatch() {
+        if (dispatchPending.compareAndSet(false, true)) {
+            executor.execute(this::dispatch);
+        }
+    }
+
+    private void dispatch() {
+        dispatchPending.set(false);
+        try {
+            if (reconciliationPending.getAndSet(false)) {
+                queueProcessorService.reconcileQueues();
+            } else {
+                queueProcessorService.processQueues();
+            }
+        } catch (Exception e) {
+            log.error("Error dispatching ticket queues", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,35 +1,51 @@
 package com.example.ticketero.scheduler;
 
-import com.example.ticketero.service.QueueProcessorService;
+import com.example.ticketero.service.ActiveTicketCounters;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 /**
- * Scheduler que procesa las colas de tickets automáticamente
- * Se ejecuta cada 5 segundos para asignar tickets a asesores disponibles
+ * Scheduler de respaldo para las colas de tickets
+ * La asignación normal la dispara QueueDispatcher por eventos; este scheduler
+ * solo reconcilia periódicamente (por defecto cada 30 segundos)
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class QueueProcessorScheduler {
 
-    private final QueueProcessorService queueProcessorService;
+    private final QueueDispatcher queueDispatcher;
+    private final ActiveTicketCounters activeTicketCounters;
 
     /**
-     * Procesa las colas de tickets cada 5 segundos
-     * - Asigna tickets en espera a asesores disponibles
-     * - Actualiza posiciones en cola
-     * - Marca tickets como PROXIMO cuando corresponde
+     * Reconcilia las colas de tickets periódicamente
+     * - Reconstruye el índice de colas desde la base de datos
+     * - Asigna tickets que hayan quedado sin despachar
+     * - Actualiza posiciones y marca tickets como PROXIMO cuando corresponde
      */
-    @Scheduled(fixedRate = 5000) // 5 segundos
+    @Scheduled(fixedRateString = "${ticketero.queue.reconciliation-interval-ms:30000}")
     public void processQueues() {
         try {
             log.debug("Queue processor scheduler executing...");
-            queueProcessorService.processQueues();
+            queueDispatcher.requestScheduledRun();
         } catch (Exception e) {
             log.error("Error processing queues in scheduler", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Reconcilia los contadores de tickets activos con la base de datos
+     * (corrige la deriva por reinicios o tickets creados en otras instancias)
+     */
+    @Scheduled(fixedRateString = "${ticketero.queue.counters-reconciliation-interval-ms:60000}",
+               initialDelayString = "${ticketero.queue.counters-reconciliation-interval-ms:60000}")
+    public void reconcileActiveCounters() {
+        try {
+            activeTicketCounters.reconcile();
+        } catch (Exception e) {
+            log.error("Error reconciling active ticket counters", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketCreatedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import com.example.ticketero.repository.TicketRepository;
+import com.example.ticketero.service.TicketQueueIndex.QueueKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores en memoria de tickets activos por (sucursal, tipo de cola)
+ * - Cuentan solo los tickets en la fila (EN_ESPERA, PROXIMO), igual que el índice que
+ *   rankea las posiciones al leer: un ticket ATENDIENDO ya no antecede a uno nuevo
+ * - Se actualizan con los eventos de creación y cambio de estado ya confirmados,
+ *   así crear un ticket no necesita leer la cola para conocer su posición
+ * - Usan LongAdder por cola para no contender entre kioscos concurrentes
+ * - Se reconcilian periódicamente con la base de datos (reinicios, otras instancias)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActiveTicketCounters {
+
+    private final TicketRepository ticketRepository;
+
+    private volatile Map<QueueKey, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Tickets en la fila (EN_ESPERA, PROXIMO) de la cola
+     */
+    public long count(String branchOffice, QueueType queueType) {
+        LongAdder counter = counters.get(new QueueKey(branchOffice, queueType));
+        return counter != null ? Math.max(counter.sum(), 0) : 0;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketCreated(TicketCreatedEvent event) {
+        counter(new QueueKey(event.branchOffice(), event.queueType())).increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        boolean wasWaiting = event.previousStatus() != null && event.previousStatus().isWaiting();
+        boolean isWaiting = event.newStatus() != null && event.newStatus().isWaiting();
+        if (wasWaiting == isWaiting) {
+            return;
+        }
+
+        LongAdder counter = counter(new QueueKey(event.branchOffice(), event.queueType()));
+        if (isWaiting) {
+            counter.increment();
+        } else {
+            counter.decrement();
+        }
+    }
+
+    /**
+     * Reemplaza los contadores por los valores actuales de la base de datos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        Map<QueueKey, LongAdder> reconciled = new ConcurrentHashMap<>();
+        for (TicketRepository.QueueCount queueCount
+                : ticketRepository.countByBranchOfficeAndQueueType(TicketStatus.getWaitingStatuses())) {
+            LongAdder counter = new LongAdder();
+            counter.add(queueCount.getTotal());
+            reconciled.put(new QueueKey(queueCount.getBranchOffice(), queueCount.getQueueType()), counter);
+        }
+
+        counters = reconciled;
+        log.debug("Active ticket counters reconciled for {} queues", reconciled.size());
+    }
+
+    private LongAdder counter(QueueKey key) {
+        return counters.computeIfAbsent(key, k -> new LongAdder());
+    }
+}
@@ -1,11 +1,17 @@
 package com.example.ticketero.service;
 
 import com.example.ticketero.model.dto.response.AdvisorResponse;
+import com.example.ticketero.model.dto.response.PageResponse;
 import com.example.ticketero.model.entity.Advisor;
 import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.event.AdvisorStatusChangedEvent;
 import com.example.ticketero.repository.AdvisorRepository;
+import com.example.ticketero.util.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +25,11 @@ import java.util.Optional;
 public class AdvisorService {
 
     private final AdvisorRepository advisorRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Tamaño máximo de página de los listados, sin importar lo que pida el cliente
+    @Value("${ticketero.pagination.max-page-size:200}")
+    private int maxPageSize = 200;
 
     public List<AdvisorResponse> findAll() {
         return advisorRepository.findAll()
@@ -31,11 +42,27 @@ public class AdvisorService {
         return advisorRepository.findById(id).map(this::toResponse);
     }
 
-    public List<AdvisorResponse> findByStatus(AdvisorStatus status) {
-        return advisorRepository.findByStatus(status)
+    // Listados paginados por keyset sobre (createdAt, id)
+    public PageResponse<AdvisorResponse> findAll(String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = pageSize(limit);
+        List<AdvisorResponse> rows = advisorRepository
+                .findAllAfter(after.createdAt(), after.id(), PageRequest.ofSize(pageSize + 1))
                 .stream()
                 .map(this::toResponse)
                 .toList();
+        return PageResponse.of(rows, pageSize, this::cursorOf);
+    }
+
+    public PageResponse<AdvisorResponse> findByStatus(AdvisorStatus status, String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = pageSize(limit);
+        List<AdvisorResponse> rows = advisorRepository
+                .findByStatusAfter(status, after.createdAt(), after.id(), PageRequest.ofSize(pageSize + 1))
+                .stream()
+                .map(this::toResponse)
+                .toList();
+        return PageResponse.of(rows, pageSize, this::cursorOf);
     }
 
     public List<AdvisorResponse> findAvailableAdvisors() {
@@ -59,40 +86,45 @@ public class AdvisorService {
         Advisor advisor = advisorRepository.findById(advisorId)
                 .orElseThrow(() -> new RuntimeException("Advisor not found with ID: " + advisorId));
 
+        AdvisorStatus previousStatus = advisor.getStatus();
         advisor.setStatus(newStatus);
+        eventPublisher.publishEvent(new AdvisorStatusChangedEvent(advisorId, previousStatus, newStatus));
         
         return toResponse(advisor);
     }
 
+    /**
+     * Incrementa la carga del asesor y lo deja BUSY si estaba AVAILABLE, en una sola sentencia
+     */
     @Transactional
     public void incrementAssignedTicketsCount(Long advisorId) {
-        Advisor advisor = advisorRepository.findById(advisorId)
-                .orElseThrow(() -> new RuntimeException("Advisor not found with ID: " + advisorId));
-
-        advisor.setAssignedTicketsCount(advisor.getAssignedTicketsCount() + 1);
-        
-        if (advisor.getStatus() == AdvisorStatus.AVAILABLE) {
-            advisor.setStatus(AdvisorStatus.BUSY);
+        if (advisorRepository.incrementAssignedTicketsCount(advisorId) == 0) {
+            throw new RuntimeException("Advisor not found with ID: " + advisorId);
         }
 
-        log.debug("Advisor {} now has {} assigned tickets", advisorId, advisor.getAssignedTicketsCount());
+        log.debug("Advisor {} assigned tickets count incremented", advisorId);
     }
 
+    /**
+     * Decrementa la carga del asesor y lo libera (AVAILABLE) al llegar a 0, en una sola sentencia.
+     * Es idempotente: un contador ya en 0 no se modifica.
+     */
     @Transactional
     public void decrementAssignedTicketsCount(Long advisorId) {
-        Advisor advisor = advisorRepository.findById(advisorId)
-                .orElseThrow(() -> new RuntimeException("Advisor not found with ID: " + advisorId));
-
-        int currentCount = advisor.getAssignedTicketsCount();
-        if (currentCount > 0) {
-            advisor.setAssignedTicketsCount(currentCount - 1);
-            
-            if (advisor.getAssignedTicketsCount() == 0 && advisor.getStatus() == AdvisorStatus.BUSY) {
-                advisor.setStatus(AdvisorStatus.AVAILABLE);
-            }
+        if (advisorRepository.decrementAssignedTicketsCount(advisorId) == 0) {
+            log.debug("Advisor {} had no assigned tickets to release", advisorId);
+            return;
         }
 
-        log.debug("Advisor {} now has {} assigned tickets", advisorId, advisor.getAssignedTicketsCount());
+        log.debug("Advisor {} assigned tickets count decremented", advisorId);
+    }
+
+    private int pageSize(int limit) {
+        return Math.clamp(limit, 1, maxPageSize);
+    }
+
+    private PageCursor cursorOf(AdvisorResponse response) {
+        return new PageCursor(response.createdAt(), response.id());
     }
 
     private AdvisorResponse toResponse(Advisor advisor) {
@@ -0,0 +1,101 @@
+package com.example.ticketero.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Calendario de días hábiles de las sucursales
+ * - El día hábil se calcula en la zona horaria de cada sucursal (o la zona por
+ *   defecto), no en la del servidor
+ * - La numeración de tickets se reinicia en cada día hábil
+ * - Los límites del día se entregan como rango semiabierto [inicio, fin) en la
+ *   hora local del servidor, que es como se guarda created_at, para que las
+ *   consultas por período usen los índices sobre created_at
+ */
+@Component
+@ConfigurationProperties(prefix = "ticketero.business-day")
+public class BusinessCalendar {
+
+    private final Clock clock;
+
+    // Zona por defecto de las sucursales
+    @Getter
+    @Setter
+    private ZoneId zone = ZoneId.of("America/Santiago");
+
+    // Zonas específicas por sucursal (ej: "[Sucursal Punta Arenas]": America/Punta_Arenas)
+    @Getter
+    @Setter
+    private Map<String, ZoneId> branchZones = new HashMap<>();
+
+    public BusinessCalendar() {
+        this(Clock.systemDefaultZone());
+    }
+
+    BusinessCalendar(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Rango semiabierto [start, end) de un día hábil en la hora local del servidor
+     */
+    public record DayRange(LocalDateTime start, LocalDateTime end) {
+
+        public boolean contains(LocalDateTime dateTime) {
+            return dateTime != null && !dateTime.isBefore(start) && dateTime.isBefore(end);
+        }
+    }
+
+    /**
+     * Día hábil actual en la zona por defecto
+     */
+    public LocalDate today() {
+        return LocalDate.now(clock.withZone(zone));
+    }
+
+    /**
+     * Día hábil actual de la sucursal
+     */
+    public LocalDate today(String branchOffice) {
+        return LocalDate.now(clock.withZone(zoneOf(branchOffice)));
+    }
+
+    /**
+     * Límites del día hábil en la zona por defecto
+     */
+    public DayRange dayRange(LocalDate businessDate) {
+        return dayRange(businessDate, zone);
+    }
+
+    /**
+     * Límites del día hábil de la sucursal
+     */
+    public DayRange dayRange(String branchOffice, LocalDate businessDate) {
+        return dayRange(businessDate, zoneOf(branchOffice));
+    }
+
+    private DayRange dayRange(LocalDate businessDate, ZoneId businessZone) {
+        return new DayRange(
+                toServerTime(businessDate.atStartOfDay(businessZone).toInstant()),
+                toServerTime(businessDate.plusDays(1).atStartOfDay(businessZone).toInstant())
+        );
+    }
+
+    private LocalDateTime toServerTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, clock.getZone());
+    }
+
+    private ZoneId zoneOf(String branchOffice) {
+        return branchOffice != null ? branchZones.getOrDefault(branchOffice, zone) : zone;
+    }
+}
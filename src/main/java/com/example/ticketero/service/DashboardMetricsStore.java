@@ -0,0 +1,216 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.dto.response.AdvisorResponse;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.model.event.TicketCreatedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import com.example.ticketero.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas del dashboard mantenidas en memoria
+ * - Se actualizan con cada transición confirmada de tickets (creación, asignación,
+ *   cierre) y se leen en tiempo constante, sin consultar la base de datos
+ * - Cubren los tickets creados en el día hábil actual; al cambiar de día se reinician
+ * - Se reconcilian periódicamente con una consulta agregada para corregir la deriva
+ *   por reinicios, otras instancias y cambios masivos (promoción a PROXIMO)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardMetricsStore {
+
+    private final TicketRepository ticketRepository;
+    private final AdvisorService advisorService;
+    private final BusinessCalendar businessCalendar;
+
+    // Tiempo que se reutiliza la lista de asesores (su carga cambia sin eventos)
+    @Value("${ticketero.dashboard.cache-ttl-ms:5000}")
+    private long advisorsTtlMs = 5000;
+
+    private volatile DailyMetrics metrics;
+    private volatile CachedAdvisors cachedAdvisors;
+
+    /**
+     * Foto consistente de las métricas del día
+     */
+    public record Snapshot(
+        Map<QueueType, Integer> ticketsByQueueType,
+        Map<TicketStatus, Integer> ticketsByStatus,
+        int totalTickets,
+        double averageWaitMinutes
+    ) {}
+
+    public Snapshot snapshot() {
+        return currentDay().snapshot();
+    }
+
+    /**
+     * Lista de asesores, recargada como máximo una vez por TTL o al cambiar el estado de uno
+     */
+    public List<AdvisorResponse> advisors() {
+        CachedAdvisors cached = cachedAdvisors;
+        if (cached != null && System.nanoTime() - cached.expiresAtNanos() < 0) {
+            return cached.advisors();
+        }
+
+        synchronized (this) {
+            cached = cachedAdvisors;
+            if (cached == null || System.nanoTime() - cached.expiresAtNanos() >= 0) {
+                cached = new CachedAdvisors(advisorService.findAll(), System.nanoTime() + advisorsTtlMs * 1_000_000);
+                cachedAdvisors = cached;
+            }
+            return cached.advisors();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketCreated(TicketCreatedEvent event) {
+        DailyMetrics current = currentDay();
+        if (current.includes(event.createdAt())) {
+            current.add(event.queueType(), TicketStatus.EN_ESPERA, 1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        if (event.previousStatus() == event.newStatus()) {
+            return;
+        }
+
+        DailyMetrics current = currentDay();
+        if (!current.includes(event.createdAt())) {
+            return;
+        }
+
+        if (event.previousStatus() != null) {
+            current.add(event.queueType(), event.previousStatus(), -1);
+        }
+        current.add(event.queueType(), event.newStatus(), 1);
+
+        if (event.newStatus() == TicketStatus.COMPLETADO) {
+            current.addCompletedWait(Duration.between(event.createdAt(), LocalDateTime.now()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdvisorStatusChanged(AdvisorStatusChangedEvent event) {
+        cachedAdvisors = null;
+    }
+
+    /**
+     * Reemplaza las métricas del día por las calculadas en la base de datos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        DailyMetrics reconciled = newDay(businessCalendar.today());
+        for (TicketRepository.QueueStatusCount count : ticketRepository.countByQueueTypeAndStatusBetween(
+                reconciled.range.start(), reconciled.range.end())) {
+            QueueType queueType = QueueType.valueOf(count.getQueueType());
+            TicketStatus status = TicketStatus.valueOf(count.getStatus());
+            reconciled.add(queueType, status, count.getTotal());
+            if (status == TicketStatus.COMPLETADO) {
+                reconciled.completedWaitMinutes.add(count.getWaitMinutesSum());
+            }
+        }
+
+        metrics = reconciled;
+        log.debug("Dashboard metrics reconciled: {} tickets today", reconciled.snapshot().totalTickets());
+    }
+
+    private DailyMetrics currentDay() {
+        DailyMetrics current = metrics;
+        LocalDate today = businessCalendar.today();
+        if (current != null && current.date.equals(today)) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (metrics == null || !metrics.date.equals(today)) {
+                metrics = newDay(today);
+            }
+            return metrics;
+        }
+    }
+
+    private DailyMetrics newDay(LocalDate businessDate) {
+        return new DailyMetrics(businessDate, businessCalendar.dayRange(businessDate));
+    }
+
+    private record CachedAdvisors(List<AdvisorResponse> advisors, long expiresAtNanos) {
+    }
+
+    /**
+     * Contadores de un día: uno por (tipo de cola, estado) más la suma de minutos
+     * de espera de los tickets completados
+     */
+    private static final class DailyMetrics {
+        private final LocalDate date;
+        private final BusinessCalendar.DayRange range;
+        private final LongAdder[][] counts = new LongAdder[QueueType.values().length][TicketStatus.values().length];
+        private final DoubleAdder completedWaitMinutes = new DoubleAdder();
+
+        DailyMetrics(LocalDate date, BusinessCalendar.DayRange range) {
+            this.date = date;
+            this.range = range;
+            for (LongAdder[] row : counts) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = new LongAdder();
+                }
+            }
+        }
+
+        boolean includes(LocalDateTime createdAt) {
+            return range.contains(createdAt);
+        }
+
+        void add(QueueType queueType, TicketStatus status, long delta) {
+            counts[queueType.ordinal()][status.ordinal()].add(delta);
+        }
+
+        void addCompletedWait(Duration wait) {
+            completedWaitMinutes.add(wait.toSeconds() / 60.0);
+        }
+
+        Snapshot snapshot() {
+            Map<QueueType, Integer> byQueueType = new EnumMap<>(QueueType.class);
+            Map<TicketStatus, Integer> byStatus = new EnumMap<>(TicketStatus.class);
+            for (TicketStatus status : TicketStatus.values()) {
+                byStatus.put(status, 0);
+            }
+
+            int total = 0;
+            for (QueueType queueType : QueueType.values()) {
+                int queueTotal = 0;
+                for (TicketStatus status : TicketStatus.values()) {
+                    int count = (int) Math.max(counts[queueType.ordinal()][status.ordinal()].sum(), 0);
+                    queueTotal += count;
+                    byStatus.merge(status, count, Integer::sum);
+                }
+                byQueueType.put(queueType, queueTotal);
+                total += queueTotal;
+            }
+
+            int completed = byStatus.get(TicketStatus.COMPLETADO);
+            double averageWaitMinutes = completed > 0 ? completedWaitMinutes.sum() / completed : 0.0;
+            return new Snapshot(byQueueType, byStatus, total, averageWaitMinutes);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Mensaje;
+import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.MessageScheduledEvent;
+import com.example.ticketero.repository.MensajeRepository;
+import com.example.ticketero.repository.MensajeRepository.DueMessage;
+import com.example.ticketero.repository.MensajeRepositoryCustom.DispatchResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Despachador de mensajes programados (outbox)
+ * - Reclama lotes acotados de mensajes vencidos con FOR UPDATE SKIP LOCKED y
+ *   confirma el reclamo antes de enviar, corriendo next_attempt_at un plazo de
+ *   reclamo: varias instancias despachan en paralelo sin enviar dos veces el mismo
+ *   mensaje, y los envíos no retienen bloqueos ni conexión a la base de datos
+ * - El reclamo trae los datos del ticket en la misma consulta: un lote cuesta
+ *   una sola lectura, sin cargar el ticket de cada mensaje
+ * - Los mensajes que quedaron obsoletos (ticket cerrado, aviso ya superado) se
+ *   descartan sin enviarse
+ * - Envía el lote de forma concurrente y espera todos los resultados; los envíos
+ *   que no terminan a tiempo se cancelan (se aborta la llamada HTTP)
+ * - Escribe los resultados del lote en un solo batch JDBC, en una segunda
+ *   transacción corta
+ * - Un envío fallido se reintenta con backoff exponencial con jitter (next_attempt_at);
+ *   al agotar los reintentos el mensaje queda AGOTADO (dead letter)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageDispatcher {
+
+    private final MensajeRepository mensajeRepository;
+    private final TelegramSender telegramSender;
+    private final MessageTemplateRenderer templateRenderer;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Mensajes reclamados por lote
+    @Value("${ticketero.messages.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${ticketero.messages.max-retries:3}")
+    private int maxRetries = 3;
+
+    // Espera antes del primer reintento; se duplica en cada intento hasta retry-max-delay-ms
+    @Value("${ticketero.messages.retry-base-delay-ms:30000}")
+    private long retryBaseDelayMs = 30_000;
+
+    @Value("${ticketero.messages.retry-max-delay-ms:1800000}")
+    private long retryMaxDelayMs = 1_800_000;
+
+    // Espera máxima por los envíos de un lote; los que no terminan se marcan fallidos
+    @Value("${ticketero.messages.send-timeout-ms:30000}")
+    private long sendTimeoutMs = 30_000;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Reclama, envía y registra un lote de mensajes vencidos
+     * @return cantidad de mensajes reclamados (menor que el tamaño de lote si no quedan más)
+     */
+    public int dispatchDueMessages() {
+        LocalDateTime now = LocalDateTime.now();
+        List<DueMessage> claimed = mensajeRepository.claimDueMessages(
+                now, now.plus(Duration.ofMillis(claimLeaseMs())), batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        log.info("Dispatching {} due messages", claimed.size());
+
+        List<DispatchResult> results = new ArrayList<>(claimed.size());
+        List<DueMessage> current = new ArrayList<>(claimed.size());
+        for (DueMessage mensaje : claimed) {
+            if (isObsolete(mensaje)) {
+                results.add(new DispatchResult(mensaje.getId(), Mensaje.EstadoEnvio.DESCARTADO,
+                        mensaje.getIntentos(), null, null, null));
+            } else {
+                current.add(mensaje);
+            }
+        }
+
+        List<CompletableFuture<String>> sends = new ArrayList<>(current.size());
+        for (DueMessage mensaje : current) {
+            sends.add(send(mensaje));
+        }
+        awaitAll(sends);
+
+        LocalDateTime sentAt = LocalDateTime.now();
+        int sent = 0;
+        for (int i = 0; i < current.size(); i++) {
+            DueMessage mensaje = current.get(i);
+            CompletableFuture<String> result = sends.get(i);
+            if (result.isDone() && !result.isCompletedExceptionally()) {
+                results.add(new DispatchResult(mensaje.getId(), Mensaje.EstadoEnvio.ENVIADO,
+                        mensaje.getIntentos(), result.join(), sentAt, null));
+                sent++;
+            } else {
+                result.cancel(true);
+                results.add(failure(mensaje, sentAt));
+            }
+        }
+        mensajeRepository.saveDispatchResults(results);
+        results.stream()
+                .filter(result -> result.estadoEnvio() == Mensaje.EstadoEnvio.FALLIDO)
+                .forEach(result -> eventPublisher.publishEvent(
+                        new MessageScheduledEvent(result.id(), result.nextAttemptAt())));
+
+        log.info("Message batch dispatched: {} sent, {} failed, {} discarded",
+                sent, current.size() - sent, claimed.size() - current.size());
+        return claimed.size();
+    }
+
+    /**
+     * Plazo del reclamo: cubre la espera del lote con margen, para que un mensaje
+     * en envío no vuelva a vencer antes de registrar su resultado
+     */
+    private long claimLeaseMs() {
+        return sendTimeoutMs * 2;
+    }
+
+    /**
+     * Un mensaje queda obsoleto si su ticket ya se cerró, o si es el aviso de
+     * PROXIMO de un ticket que ya está siendo atendido
+     */
+    private static boolean isObsolete(DueMessage mensaje) {
+        TicketStatus ticketStatus = TicketStatus.valueOf(mensaje.getTicketStatus());
+        if (!ticketStatus.isActive()) {
+            return true;
+        }
+        return ticketStatus == TicketStatus.ATENDIENDO
+                && MessageTemplate.valueOf(mensaje.getPlantilla()) == MessageTemplate.TOTEM_PROXIMO_TURNO;
+    }
+
+    private DispatchResult failure(DueMessage mensaje, LocalDateTime failedAt) {
+        int attempts = mensaje.getIntentos() + 1;
+
+        if (attempts >= maxRetries) {
+            log.warn("Message {} moved to dead letter after {} attempts", mensaje.getId(), attempts);
+            return new DispatchResult(mensaje.getId(), Mensaje.EstadoEnvio.AGOTADO, attempts, null, null, null);
+        }
+
+        LocalDateTime nextAttemptAt = failedAt.plus(Duration.ofMillis(retryDelayMs(attempts)));
+        return new DispatchResult(mensaje.getId(), Mensaje.EstadoEnvio.FALLIDO, attempts, null, null, nextAttemptAt);
+    }
+
+    /**
+     * Backoff exponencial con jitter: entre la mitad y el total de base * 2^(intentos - 1),
+     * para que los mensajes que fallaron juntos no se reintenten todos a la vez
+     */
+    long retryDelayMs(int attempts) {
+        long exponential = retryBaseDelayMs << Math.min(attempts - 1, 30);
+        long delay = Math.min(retryMaxDelayMs, exponential > 0 ? exponential : retryMaxDelayMs);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Retorna el future del envío tal como lo entrega TelegramSender: cancelarlo
+     * aborta la llamada HTTP (cancelar una etapa derivada no la detendría)
+     */
+    private CompletableFuture<String> send(DueMessage mensaje) {
+        try {
+            String content = templateRenderer.render(MessageTemplate.valueOf(mensaje.getPlantilla()), mensaje);
+            CompletableFuture<String> send = telegramSender.send(content);
+            send.whenComplete((telegramMessageId, error) -> {
+                if (error != null && !send.isCancelled()) {
+                    log.error("Failed to send message {}: {}", mensaje.getId(), error.getMessage());
+                }
+            });
+            return send;
+        } catch (RuntimeException e) {
+            log.error("Failed to build message {}: {}", mensaje.getId(), e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void awaitAll(List<CompletableFuture<String>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Message batch did not finish within {} ms, pending sends are marked as failed", sendTimeoutMs);
+        } catch (ExecutionException e) {
+            // Los fallos individuales se registran por mensaje
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
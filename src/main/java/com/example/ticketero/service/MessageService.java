@@ -1,11 +1,15 @@
 package com.example.ticketero.service;
 
+import com.example.ticketero.model.dto.response.MessageReplayResponse;
 import com.example.ticketero.model.entity.Mensaje;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.model.event.MessageScheduledEvent;
 import com.example.ticketero.repository.MensajeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +23,9 @@ import java.util.List;
 public class MessageService {
 
     private final MensajeRepository mensajeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int MAX_REPLAY_BATCH = 1000;
 
     @Transactional
     public void scheduleMessage(Ticket ticket, MessageTemplate template, LocalDateTime scheduledTime) {
@@ -28,11 +35,13 @@ public class MessageService {
                 .ticket(ticket)
                 .plantilla(template)
                 .fechaProgramada(scheduledTime)
+                .nextAttemptAt(scheduledTime)
                 .estadoEnvio(Mensaje.EstadoEnvio.PENDIENTE)
                 .intentos(0)
                 .build();
 
         mensajeRepository.save(mensaje);
+        eventPublisher.publishEvent(new MessageScheduledEvent(mensaje.getId(), scheduledTime));
     }
 
     @Transactional
@@ -41,50 +50,75 @@ public class MessageService {
         scheduleMessage(ticket, MessageTemplate.TOTEM_TICKET_CREADO, LocalDateTime.now());
     }
 
+    /**
+     * Confirmación inmediata para un lote de tickets recién creados, insertada en un solo batch
+     */
     @Transactional
-    public void scheduleProximoTurnoMessage(Ticket ticket) {
-        // Programar mensaje cuando esté próximo (estimado - 5 minutos)
-        LocalDateTime scheduledTime = LocalDateTime.now().plusMinutes(
-                Math.max(1, ticket.getEstimatedWaitMinutes() - 5)
-        );
-        scheduleMessage(ticket, MessageTemplate.TOTEM_PROXIMO_TURNO, scheduledTime);
+    public void scheduleTicketCreatedMessages(List<Ticket> tickets) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Mensaje> mensajes = tickets.stream()
+                .map(ticket -> Mensaje.builder()
+                        .ticket(ticket)
+                        .plantilla(MessageTemplate.TOTEM_TICKET_CREADO)
+                        .fechaProgramada(now)
+                        .nextAttemptAt(now)
+                        .estadoEnvio(Mensaje.EstadoEnvio.PENDIENTE)
+                        .intentos(0)
+                        .createdAt(now)
+                        .build())
+                .toList();
+
+        mensajeRepository.insertAll(mensajes);
+        log.info("Scheduled {} ticket created messages", mensajes.size());
+        mensajes.forEach(mensaje -> eventPublisher.publishEvent(new MessageScheduledEvent(mensaje.getId(), now)));
     }
 
     @Transactional
-    public void scheduleEsTuTurnoMessage(Ticket ticket) {
-        // Programar mensaje cuando sea su turno (tiempo estimado)
-        LocalDateTime scheduledTime = LocalDateTime.now().plusMinutes(ticket.getEstimatedWaitMinutes());
-        scheduleMessage(ticket, MessageTemplate.TOTEM_ES_TU_TURNO, scheduledTime);
-    }
-
-    public List<Mensaje> findPendingMessages() {
-        return mensajeRepository.findPendingMessagesReadyToSend(LocalDateTime.now());
+    public void scheduleProximoTurnoMessage(Ticket ticket) {
+        // Aviso inmediato al pasar a PROXIMO
+        scheduleMessage(ticket, MessageTemplate.TOTEM_PROXIMO_TURNO, LocalDateTime.now());
     }
 
-    public List<Mensaje> findFailedMessagesForRetry(int maxRetries) {
-        return mensajeRepository.findFailedMessagesForRetry(maxRetries, LocalDateTime.now());
+    @Transactional
+    public void scheduleEsTuTurnoMessage(Ticket ticket) {
+        // Aviso inmediato al ser asignado; el aviso de PROXIMO que no salió ya no sirve
+        mensajeRepository.discardPendingMessages(ticket.getId(), List.of(MessageTemplate.TOTEM_PROXIMO_TURNO));
+        scheduleMessage(ticket, MessageTemplate.TOTEM_ES_TU_TURNO, LocalDateTime.now());
     }
 
+    /**
+     * Descarta los mensajes aún no enviados de un ticket cerrado (completado, cancelado o no atendido)
+     */
     @Transactional
-    public void markMessageAsSent(Long messageId, String telegramMessageId) {
-        Mensaje mensaje = mensajeRepository.findById(messageId)
-                .orElseThrow(() -> new RuntimeException("Message not found with ID: " + messageId));
-
-        mensaje.setEstadoEnvio(Mensaje.EstadoEnvio.ENVIADO);
-        mensaje.setFechaEnvio(LocalDateTime.now());
-        mensaje.setTelegramMessageId(telegramMessageId);
+    public void discardPendingMessages(Long ticketId) {
+        int discarded = mensajeRepository.discardPendingMessages(ticketId, List.of(MessageTemplate.values()));
+        if (discarded > 0) {
+            log.info("{} pending messages discarded for closed ticket {}", discarded, ticketId);
+        }
+    }
 
-        log.info("Message {} marked as sent with Telegram ID: {}", messageId, telegramMessageId);
+    /**
+     * Mensajes pendientes o por reintentar cuyo próximo intento vence antes de until,
+     * los más próximos primero
+     */
+    public List<MensajeRepository.ScheduledDelivery> findDeliveriesDueBefore(LocalDateTime until, int limit) {
+        return mensajeRepository.findDeliveriesDueBefore(until, PageRequest.ofSize(limit));
     }
 
+    /**
+     * Devuelve a PENDIENTE, con todos sus reintentos, hasta limit mensajes en dead letter
+     * (los más antiguos primero) en una sola sentencia
+     */
     @Transactional
-    public void markMessageAsFailed(Long messageId) {
-        Mensaje mensaje = mensajeRepository.findById(messageId)
-                .orElseThrow(() -> new RuntimeException("Message not found with ID: " + messageId));
-
-        mensaje.setEstadoEnvio(Mensaje.EstadoEnvio.FALLIDO);
-        mensaje.setIntentos(mensaje.getIntentos() + 1);
-
-        log.warn("Message {} marked as failed. Attempt: {}", messageId, mensaje.getIntentos());
+    public MessageReplayResponse replayDeadLetters(int limit) {
+        int batch = Math.clamp(limit, 1, MAX_REPLAY_BATCH);
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> replayedIds = mensajeRepository.replayDeadLetters(now, batch);
+        replayedIds.forEach(id -> eventPublisher.publishEvent(new MessageScheduledEvent(id, now)));
+        int replayed = replayedIds.size();
+        long remaining = mensajeRepository.countByEstadoEnvio(Mensaje.EstadoEnvio.AGOTADO);
+
+        log.info("{} dead letter messages replayed, {} remaining", replayed, remaining);
+        return new MessageReplayResponse(replayed, remaining);
     }
-}
\ No newline at end of file
+}
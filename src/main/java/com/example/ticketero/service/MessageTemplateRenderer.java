@@ -0,0 +1,140 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.repository.MensajeRepository.DueMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+/**
+ * Armado del contenido de los mensajes de Telegram
+ * - Los textos se leen de messages/telegram[_idioma].properties según ticketero.messages.locale
+ * - Cada plantilla se compila una sola vez al iniciar en una secuencia de segmentos
+ *   (texto fijo o marcador); un marcador desconocido falla al iniciar, no al enviar
+ * - Cada hilo reutiliza su propio buffer: renderizar solo asigna el String final
+ */
+@Component
+@Slf4j
+public class MessageTemplateRenderer {
+
+    private static final String BUNDLE = "messages/telegram";
+    // Un buffer que creció por sobre este tamaño no se conserva para el hilo
+    private static final int MAX_RETAINED_BUFFER = 4096;
+
+    private final Map<MessageTemplate, Segment[]> templates = new EnumMap<>(MessageTemplate.class);
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    /**
+     * Tramo de una plantilla: texto fijo (field == null) o el valor de un marcador
+     */
+    record Segment(String literal, Field field) {}
+
+    /**
+     * Marcadores disponibles en los textos, con el dato del mensaje que reemplazan
+     */
+    enum Field {
+        NUMERO("numero"),
+        COLA("cola"),
+        POSICION("posicion"),
+        TIEMPO("tiempo"),
+        MODULO("modulo");
+
+        private final String placeholder;
+
+        Field(String placeholder) {
+            this.placeholder = placeholder;
+        }
+
+        static Field of(String placeholder) {
+            for (Field field : values()) {
+                if (field.placeholder.equals(placeholder)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+
+        // Los números se agregan sin pasar por String; un número ausente se muestra como 0
+        void appendTo(StringBuilder buffer, DueMessage mensaje) {
+            switch (this) {
+                case NUMERO -> buffer.append(mensaje.getNumero());
+                case COLA -> buffer.append(QueueType.valueOf(mensaje.getQueueType()).getDisplayName());
+                case POSICION -> appendNumber(buffer, mensaje.getPositionInQueue());
+                case TIEMPO -> appendNumber(buffer, mensaje.getEstimatedWaitMinutes());
+                case MODULO -> appendNumber(buffer, mensaje.getAssignedModuleNumber());
+            }
+        }
+
+        private static void appendNumber(StringBuilder buffer, Integer value) {
+            buffer.append(value != null ? value : 0);
+        }
+    }
+
+    public MessageTemplateRenderer(@Value("${ticketero.messages.locale:es}") String locale) {
+        ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE, Locale.forLanguageTag(locale),
+                ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES));
+        for (MessageTemplate template : MessageTemplate.values()) {
+            templates.put(template, compile(template.getTemplateName(), bundle.getString(template.getTemplateName())));
+        }
+        log.info("{} message templates compiled for locale {}", templates.size(), locale);
+    }
+
+    /**
+     * Arma el contenido del mensaje con la plantilla indicada
+     */
+    public String render(MessageTemplate template, DueMessage mensaje) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        for (Segment segment : templates.get(template)) {
+            if (segment.field() == null) {
+                buffer.append(segment.literal());
+            } else {
+                segment.field().appendTo(buffer, mensaje);
+            }
+        }
+        String content = buffer.toString();
+
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+        return content;
+    }
+
+    /**
+     * Separa el texto en tramos fijos y marcadores {nombre}
+     */
+    static Segment[] compile(String templateName, String text) {
+        List<Segment> segments = new ArrayList<>();
+        int literalStart = 0;
+        int open;
+        while ((open = text.indexOf('{', literalStart)) >= 0) {
+            int close = text.indexOf('}', open);
+            if (close < 0) {
+                break;
+            }
+            String placeholder = text.substring(open + 1, close);
+            Field field = Field.of(placeholder);
+            if (field == null) {
+                throw new IllegalStateException(
+                        "Unknown placeholder {" + placeholder + "} in message template " + templateName);
+            }
+            if (open > literalStart) {
+                segments.add(new Segment(text.substring(literalStart, open), null));
+            }
+            segments.add(new Segment(null, field));
+            literalStart = close + 1;
+        }
+        if (literalStart < text.length()) {
+            segments.add(new Segment(text.substring(literalStart), null));
+        }
+        return segments.toArray(Segment[]::new);
+    }
+}
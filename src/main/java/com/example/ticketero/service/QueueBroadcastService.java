@@ -0,0 +1,237 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.dto.response.QueueUpdateResponse;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.QueueUpdateType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.RemoteTicketCreatedEvent;
+import com.example.ticketero.model.event.RemoteTicketEventsGapEvent;
+import com.example.ticketero.model.event.RemoteTicketStatusChangedEvent;
+import com.example.ticketero.model.event.TicketCreatedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import com.example.ticketero.service.TicketQueueIndex.QueueKey;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Difusión por Server-Sent Events de los cambios de cada cola a las pantallas
+ * de sala de espera
+ * - Cada pantalla recibe el estado inicial al conectarse y luego solo deltas
+ *   (ticket nuevo, promovido a PROXIMO, llamado a módulo, retirado)
+ * - Cada cambio se serializa una sola vez y se envía a todas las pantallas
+ *   suscritas a esa (sucursal, cola), sin consultar la base de datos
+ * - Sigue también los cambios de otras instancias (TicketEventRelay); si el canal
+ *   se cortó, reenvía el estado inicial a todas las pantallas
+ * - Cada pantalla tiene su propia cola de envíos, que se vacía en un hilo virtual:
+ *   una pantalla lenta no demora a las demás ni a las transacciones, y si acumula
+ *   más de max-pending-updates envíos se desconecta (el navegador reconecta y
+ *   recibe un estado inicial nuevo)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QueueBroadcastService {
+
+    private static final String SNAPSHOT_EVENT = "snapshot";
+    private static final String UPDATE_EVENT = "queue-update";
+
+    private final TicketService ticketService;
+    private final ObjectMapper objectMapper;
+
+    private final Map<QueueKey, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Duración máxima de cada conexión; el navegador reconecta automáticamente
+    @Value("${ticketero.display.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs = 1_800_000;
+
+    @Value("${ticketero.display.max-pending-updates:100}")
+    private int maxPendingUpdates = 100;
+
+    private record Update(String eventName, String payload) {
+    }
+
+    /**
+     * Pantalla suscrita y sus envíos pendientes, enviados en orden por un solo hilo a la vez
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<Subscriber> group;
+        private final Queue<Update> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Set<Subscriber> group) {
+            this.emitter = emitter;
+            this.group = group;
+        }
+
+        void offer(String eventName, String payload) {
+            if (pendingCount.incrementAndGet() > maxPendingUpdates) {
+                // Se completa en otro hilo: complete() espera al envío bloqueado en curso
+                log.debug("Dropping slow display board with {} pending updates", maxPendingUpdates);
+                if (group.remove(this)) {
+                    executor.execute(emitter::complete);
+                }
+                return;
+            }
+            pending.add(new Update(eventName, payload));
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            Update update;
+            while ((update = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                if (!send(update)) {
+                    return;
+                }
+            }
+            draining.set(false);
+            // Un envío encolado después del último poll y antes de liberar la marca
+            if (!pending.isEmpty() && draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private boolean send(Update update) {
+            try {
+                emitter.send(SseEmitter.event().name(update.eventName()).data(update.payload(), MediaType.APPLICATION_JSON));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Pantalla desconectada: se descarta sin afectar a las demás
+                log.debug("Removing disconnected display board: {}", e.getMessage());
+                group.remove(this);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Suscribe una pantalla a los cambios de una cola de la sucursal
+     */
+    public SseEmitter subscribe(String branchOffice, QueueType queueType) {
+        QueueKey key = new QueueKey(branchOffice, queueType);
+        Set<Subscriber> group = subscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(emitter, group);
+        emitter.onCompletion(() -> group.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> group.remove(subscriber));
+        group.add(subscriber);
+
+        subscriber.offer(SNAPSHOT_EVENT, snapshot(key));
+
+        log.debug("Display board subscribed to {} ({} subscribers)", key, group.size());
+        return emitter;
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(streamTimeoutMs);
+    }
+
+    public int subscriberCount(String branchOffice, QueueType queueType) {
+        Set<Subscriber> group = subscribers.get(new QueueKey(branchOffice, queueType));
+        return group != null ? group.size() : 0;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketCreated(TicketCreatedEvent event) {
+        broadcast(new QueueKey(event.branchOffice(), event.queueType()), new QueueUpdateResponse(
+                QueueUpdateType.TICKET_WAITING, event.ticketId(), event.numero(), TicketStatus.EN_ESPERA, null));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        QueueUpdateType type = switch (event.newStatus()) {
+            case EN_ESPERA -> QueueUpdateType.TICKET_WAITING;
+            case PROXIMO -> QueueUpdateType.TICKET_PROMOTED;
+            case ATENDIENDO -> QueueUpdateType.TICKET_CALLED;
+            default -> QueueUpdateType.TICKET_REMOVED;
+        };
+        broadcast(new QueueKey(event.branchOffice(), event.queueType()), new QueueUpdateResponse(
+                type, event.ticketId(), event.numero(), event.newStatus(), event.assignedModuleNumber()));
+    }
+
+    @EventListener
+    public void onRemoteTicketCreated(RemoteTicketCreatedEvent remote) {
+        onTicketCreated(remote.event());
+    }
+
+    @EventListener
+    public void onRemoteTicketStatusChanged(RemoteTicketStatusChangedEvent remote) {
+        onTicketStatusChanged(remote.event());
+    }
+
+    /**
+     * Reenvía el estado inicial a todas las pantallas: pudieron perderse cambios de otras instancias
+     */
+    @EventListener
+    public void onRemoteTicketEventsGap(RemoteTicketEventsGapEvent gap) {
+        subscribers.forEach((key, group) -> {
+            if (!group.isEmpty()) {
+                String payload = snapshot(key);
+                group.forEach(subscriber -> subscriber.offer(SNAPSHOT_EVENT, payload));
+            }
+        });
+    }
+
+    private void broadcast(QueueKey key, QueueUpdateResponse update) {
+        Set<Subscriber> group = subscribers.get(key);
+        if (group == null || group.isEmpty()) {
+            return;
+        }
+
+        String payload = toJson(update);
+        group.forEach(subscriber -> subscriber.offer(UPDATE_EVENT, payload));
+    }
+
+    private String snapshot(QueueKey key) {
+        List<QueueUpdateResponse> snapshot = ticketService
+                .findActiveTicketsByBranchOfficeAndQueueType(key.branchOffice(), key.queueType())
+                .stream()
+                .map(ticket -> new QueueUpdateResponse(QueueUpdateType.SNAPSHOT,
+                        ticket.id(), ticket.numero(), ticket.status(), ticket.assignedModuleNumber()))
+                .toList();
+        return toJson(snapshot);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize queue update", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        subscribers.values().forEach(group -> group.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+}
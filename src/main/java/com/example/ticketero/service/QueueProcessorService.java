@@ -4,13 +4,21 @@ import com.example.ticketero.model.entity.Advisor;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.AdvisorStatus;
 import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
 import com.example.ticketero.repository.AdvisorRepository;
 import com.example.ticketero.repository.TicketRepository;
+import com.example.ticketero.service.TicketQueueIndex.QueueKey;
+import com.example.ticketero.util.TransactionCallbacks;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,85 +31,119 @@ public class QueueProcessorService {
     private final TicketRepository ticketRepository;
     private final AdvisorRepository advisorRepository;
     private final AdvisorService advisorService;
+    private final TicketQueueIndex queueIndex;
+    private final MessageService messageService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final List<TicketStatus> WAITING_STATUSES = TicketStatus.getWaitingStatuses();
+    private static final int PROXIMO_THRESHOLD = 3;
+
+    // Máximo de asignaciones por ciclo
+    @Value("${ticketero.queue.claim-batch-size:100}")
+    private int claimBatchSize = 100;
+
+    // false: la posición y el tiempo estimado se derivan del índice al leer y no se persisten
+    @Value("${ticketero.queue.persist-positions:false}")
+    private boolean persistPositions;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildQueueIndex() {
+        queueIndex.rebuild(ticketRepository.findByStatusInOrderByCreatedAtAscIdAsc(WAITING_STATUSES));
+    }
+
+    /**
+     * Reconstruye el índice desde la base de datos y procesa las colas.
+     * Red de seguridad periódica ante eventos perdidos u otras instancias.
+     */
+    @Transactional
+    public void reconcileQueues() {
+        log.debug("Reconciling ticket queues with database");
+        queueIndex.invalidate();
+        processQueues();
+    }
 
     @Transactional
     public void processQueues() {
         log.debug("Processing ticket queues");
 
-        // Buscar tickets en espera
-        List<Ticket> waitingTickets = ticketRepository.findByStatus(TicketStatus.EN_ESPERA);
-        
-        for (Ticket ticket : waitingTickets) {
-            processTicket(ticket);
+        if (queueIndex.isStale()) {
+            rebuildQueueIndex();
         }
 
-        // Actualizar posiciones en cola
-        updateQueuePositions();
+        // Si la transacción falla, el índice se reconstruye en el próximo ciclo
+        TransactionCallbacks.afterRollback(queueIndex::invalidate);
+
+        assignWaitingTickets();
+
+        // Actualizar posiciones solo en las colas que cambiaron
+        updateChangedQueuePositions();
     }
 
-    private void processTicket(Ticket ticket) {
-        // Buscar asesor disponible con menor carga
-        Optional<Advisor> availableAdvisor = advisorRepository.findAvailableAdvisorsOrderByWorkload()
-                .stream()
-                .findFirst();
-
-        if (availableAdvisor.isPresent()) {
-            assignTicketToAdvisor(ticket, availableAdvisor.get());
-        } else {
-            // Marcar como próximo si está en las primeras 3 posiciones
-            updateTicketToProximoIfApplicable(ticket);
+    private void assignWaitingTickets() {
+        // El índice solo indica qué colas revisar: qué tickets siguen en espera, incluidos
+        // los creados en otras instancias, lo decide el reclamo en la base de datos
+        List<QueueKey> queues = queueIndex.knownQueues();
+        if (queues.isEmpty()) {
+            return;
+        }
+
+        int limit = (int) Math.min(claimBatchSize, advisorRepository.countByStatus(AdvisorStatus.AVAILABLE));
+        if (limit == 0) {
+            return;
+        }
+
+        // Los reclamados que no alcancen asesor se liberan sin cambios al commit
+        for (Ticket ticket : claimOldestWaitingTickets(queues, limit)) {
+            // Reclamar asesor e incrementar su carga en una sola sentencia atómica
+            Optional<Advisor> advisor = advisorRepository.claimNextAvailableAdvisor();
+            if (advisor.isEmpty()) {
+                return;
+            }
+            queueIndex.remove(ticket.getId());
+            queueIndex.markDirty(QueueKey.of(ticket));
+            assignTicketToAdvisor(ticket, advisor.get());
         }
     }
 
+    private List<Ticket> claimOldestWaitingTickets(List<QueueKey> queues, int limit) {
+        return queues.stream()
+                .flatMap(queue -> ticketRepository
+                        .claimWaitingTickets(queue.branchOffice(), queue.queueType(), limit).stream())
+                .sorted(Comparator.comparing(Ticket::getCreatedAt).thenComparing(Ticket::getId))
+                .limit(limit)
+                .toList();
+    }
+
     private void assignTicketToAdvisor(Ticket ticket, Advisor advisor) {
         log.info("Assigning ticket {} to advisor {} (module {})", 
                 ticket.getNumero(), advisor.getName(), advisor.getModuleNumber());
 
+        TicketStatus previousStatus = ticket.getStatus();
         ticket.setAssignedAdvisor(advisor);
         ticket.setAssignedModuleNumber(advisor.getModuleNumber());
         ticket.setStatus(TicketStatus.ATENDIENDO);
         ticket.setPositionInQueue(0);
-
-        // Actualizar contador del asesor
-        advisorService.incrementAssignedTicketsCount(advisor.getId());
+        messageService.scheduleEsTuTurnoMessage(ticket);
+        eventPublisher.publishEvent(TicketStatusChangedEvent.of(ticket, previousStatus));
     }
 
-    private void updateTicketToProximoIfApplicable(Ticket ticket) {
-        // Contar tickets activos de la misma cola
-        List<TicketStatus> activeStatuses = TicketStatus.getActiveStatuses();
-        List<Ticket> activeTickets = ticketRepository.findActiveTicketsByQueueType(
-                ticket.getQueueType(), activeStatuses);
-
-        // Encontrar posición del ticket actual
-        int position = findTicketPosition(ticket, activeTickets);
-        
-        if (position <= 3 && ticket.getStatus() == TicketStatus.EN_ESPERA) {
-            ticket.setStatus(TicketStatus.PROXIMO);
-            log.info("Ticket {} marked as PROXIMO (position {})", ticket.getNumero(), position);
+    private void updateChangedQueuePositions() {
+        if (queueIndex.drainDirtyQueues().isEmpty()) {
+            return;
         }
 
-        ticket.setPositionInQueue(position);
-    }
-
-    private int findTicketPosition(Ticket targetTicket, List<Ticket> activeTickets) {
-        for (int i = 0; i < activeTickets.size(); i++) {
-            if (activeTickets.get(i).getId().equals(targetTicket.getId())) {
-                return i + 1;
-            }
-        }
-        return activeTickets.size() + 1;
-    }
-
-    private void updateQueuePositions() {
-        // Actualizar posiciones para todos los tickets activos
-        List<TicketStatus> activeStatuses = List.of(TicketStatus.EN_ESPERA, TicketStatus.PROXIMO);
-        
-        for (TicketStatus status : activeStatuses) {
-            List<Ticket> tickets = ticketRepository.findByStatus(status);
-            for (Ticket ticket : tickets) {
-                updateTicketToProximoIfApplicable(ticket);
-            }
-        }
+        // Asignaciones pendientes se escriben antes de que la consulta nativa evalúe la cola
+        ticketRepository.flush();
+        List<Ticket> promoted = persistPositions
+                // Una sola sentencia recalcula todas las colas y solo escribe las filas que cambian
+                ? ticketRepository.updateQueuePositions(PROXIMO_THRESHOLD)
+                // Solo se escriben las promociones a PROXIMO; la posición se calcula al leer
+                : ticketRepository.promoteProximoTickets(PROXIMO_THRESHOLD);
+        promoted.forEach(ticket -> {
+            messageService.scheduleProximoTurnoMessage(ticket);
+            eventPublisher.publishEvent(TicketStatusChangedEvent.of(ticket, TicketStatus.EN_ESPERA));
+        });
+        log.debug("{} tickets promoted to PROXIMO", promoted.size());
     }
 
     @Transactional
@@ -111,7 +153,11 @@ public class QueueProcessorService {
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket not found with ID: " + ticketId));
 
+        TicketStatus previousStatus = ticket.getStatus();
         ticket.setStatus(TicketStatus.COMPLETADO);
+        TransactionCallbacks.afterCommit(() -> queueIndex.remove(ticketId));
+        messageService.discardPendingMessages(ticketId);
+        eventPublisher.publishEvent(TicketStatusChangedEvent.of(ticket, previousStatus));
 
         // Liberar asesor
         if (ticket.getAssignedAdvisor() != null) {
@@ -126,7 +172,11 @@ public class QueueProcessorService {
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket not found with ID: " + ticketId));
 
+        TicketStatus previousStatus = ticket.getStatus();
         ticket.setStatus(TicketStatus.CANCELADO);
+        TransactionCallbacks.afterCommit(() -> queueIndex.remove(ticketId));
+        messageService.discardPendingMessages(ticketId);
+        eventPublisher.publishEvent(TicketStatusChangedEvent.of(ticket, previousStatus));
 
         // Liberar asesor si estaba asignado
         if (ticket.getAssignedAdvisor() != null) {
@@ -0,0 +1,210 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.util.TokenBucket;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envío de mensajes a la API de Telegram (sendMessage)
+ * - Todos los mensajes van al chat de telegram.chat-id: los tickets solo tienen
+ *   teléfono, que no sirve como chat_id
+ * - Sin token o sin chat-id el envío se simula (se registra en el log y retorna
+ *   un ID ficticio), como en ambientes locales
+ * - Un único HttpClient reutiliza las conexiones entre envíos
+ * - Cada envío corre en un hilo virtual: send() retorna de inmediato y una API
+ *   lenta solo demora el futuro, nunca al hilo que llama
+ * - Cancelar el futuro interrumpe ese hilo: la llamada HTTP en curso se aborta
+ *   y libera su cupo de envío
+ * - Como máximo send-parallelism envíos en curso a la vez
+ * - Un token bucket global respeta el límite de mensajes por segundo del bot;
+ *   ante un 429 se pausa el bucket el tiempo indicado por retry_after y se reintenta
+ */
+@Component
+@Slf4j
+public class TelegramSender {
+
+    private static final int MAX_RATE_LIMIT_RETRIES = 3;
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final ObjectMapper objectMapper;
+    private final URI sendMessageUri;
+    private final boolean configured;
+    private final String chatId;
+    private final AtomicLong simulatedMessageIds = new AtomicLong();
+    private final Duration requestTimeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final Semaphore inFlight;
+    private final TokenBucket rateLimiter;
+
+    public TelegramSender(ObjectMapper objectMapper,
+                          @Value("${telegram.api-url:https://api.telegram.org/bot}") String apiUrl,
+                          @Value("${telegram.bot-token:}") String botToken,
+                          @Value("${telegram.chat-id:}") String chatId,
+                          @Value("${ticketero.messages.send-parallelism:8}") int sendParallelism,
+                          @Value("${ticketero.messages.rate-per-second:30}") double ratePerSecond,
+                          @Value("${ticketero.messages.request-timeout-ms:10000}") long requestTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.sendMessageUri = URI.create(apiUrl + botToken + "/sendMessage");
+        this.configured = !botToken.isBlank() && !chatId.isBlank();
+        this.chatId = chatId;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(requestTimeout)
+                .executor(executor)
+                .build();
+        this.inFlight = new Semaphore(sendParallelism);
+        this.rateLimiter = new TokenBucket(ratePerSecond, 1);
+
+        if (!configured) {
+            log.warn("Telegram bot token or chat id is not configured, message sends will be simulated");
+        }
+    }
+
+    /**
+     * Envía el texto al chat configurado en telegram.chat-id.
+     * El futuro retorna el ID de mensaje de Telegram, o falla si el envío no se pudo hacer.
+     */
+    public CompletableFuture<String> send(String text) {
+        if (!configured) {
+            return CompletableFuture.completedFuture(simulateSend(text));
+        }
+
+        SendFuture result = new SendFuture();
+        result.start(executor.submit(() -> {
+            try {
+                result.complete(sendWithRateLimit(text));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }));
+        return result;
+    }
+
+    /**
+     * Futuro de un envío que, al cancelarse, interrumpe la tarea que lo ejecuta
+     * (cancelar un CompletableFuture por sí solo no detiene su tarea)
+     */
+    private static final class SendFuture extends CompletableFuture<String> {
+
+        private volatile Future<?> task;
+
+        void start(Future<?> task) {
+            this.task = task;
+            if (isCancelled()) {
+                task.cancel(true);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<?> running = task;
+            if (cancelled && running != null) {
+                running.cancel(true);
+            }
+            return cancelled;
+        }
+
+        // Las etapas derivadas son futuros comunes: cancelarlas no aborta el envío
+        @Override
+        public <U> CompletableFuture<U> newIncompleteFuture() {
+            return new CompletableFuture<>();
+        }
+    }
+
+    private String simulateSend(String text) {
+        String messageId = "sim_" + simulatedMessageIds.incrementAndGet();
+        log.info("Simulated Telegram message {}: {}", messageId, text);
+        return messageId;
+    }
+
+    private String sendWithRateLimit(String text) {
+        try {
+            inFlight.acquire();
+            try {
+                HttpRequest request = buildRequest(text);
+                for (int attempt = 0; ; attempt++) {
+                    rateLimiter.acquire();
+                    HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+                    if (response.statusCode() == 429 && attempt < MAX_RATE_LIMIT_RETRIES) {
+                        Duration retryAfter = retryAfter(response);
+                        log.warn("Telegram rate limit reached, pausing sends for {} s", retryAfter.toSeconds());
+                        rateLimiter.pauseFor(retryAfter);
+                        continue;
+                    }
+                    return messageId(response);
+                }
+            } finally {
+                inFlight.release();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Telegram send interrupted", e);
+        }
+    }
+
+    private HttpRequest buildRequest(String text) throws JsonProcessingException {
+        String body = objectMapper.writeValueAsString(Map.of("chat_id", chatId, "text", text));
+        return HttpRequest.newBuilder(sendMessageUri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String messageId(HttpResponse<String> response) throws JsonProcessingException {
+        JsonNode json = parse(response.body());
+        if (response.statusCode() / 100 != 2 || !json.path("ok").asBoolean()) {
+            throw new IllegalStateException("Telegram API error " + response.statusCode() + ": "
+                    + json.path("description").asText(response.body()));
+        }
+        return json.path("result").path("message_id").asText();
+    }
+
+    // Telegram indica la espera en parameters.retry_after; se usa Retry-After como respaldo
+    private Duration retryAfter(HttpResponse<String> response) throws JsonProcessingException {
+        JsonNode retryAfter = parse(response.body()).path("parameters").path("retry_after");
+        if (retryAfter.canConvertToLong()) {
+            return Duration.ofSeconds(retryAfter.asLong());
+        }
+        return response.headers().firstValueAsLong("Retry-After")
+                .stream()
+                .mapToObj(Duration::ofSeconds)
+                .findFirst()
+                .orElse(DEFAULT_RETRY_AFTER);
+    }
+
+    private JsonNode parse(String body) throws JsonProcessingException {
+        return body == null || body.isBlank() ? objectMapper.createObjectNode() : objectMapper.readTree(body);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpClient.shutdownNow();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.dto.request.CreateTicketRequest;
+import com.example.ticketero.model.dto.response.TicketResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit de la creación de tickets
+ * - Las solicitudes que llegan juntas (ej: apertura de sucursal con varios tótems)
+ *   se acumulan hasta max-wait-ms o max-batch-size y se crean en una sola
+ *   transacción con TicketService.createTickets
+ * - Si el lote falla, cada solicitud se reintenta sola para que un dato inválido
+ *   no haga fallar a las demás (los números del lote fallido quedan como salto)
+ * - Desactivado (por defecto), cada solicitud se crea de inmediato en el hilo que llama
+ */
+@Component
+@Slf4j
+public class TicketCreationBatcher {
+
+    private final TicketService ticketService;
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizes;
+
+    private final BlockingQueue<PendingCreation> pending = new LinkedBlockingQueue<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ticket-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record PendingCreation(CreateTicketRequest request, CompletableFuture<TicketResponse> result) {}
+
+    public TicketCreationBatcher(TicketService ticketService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${ticketero.tickets.group-commit.enabled:false}") boolean enabled,
+                                 @Value("${ticketero.tickets.group-commit.max-wait-ms:5}") long maxWaitMillis,
+                                 @Value("${ticketero.tickets.group-commit.max-batch-size:64}") int maxBatchSize) {
+        this.ticketService = ticketService;
+        this.enabled = enabled;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizes = DistributionSummary.builder("ticketero.tickets.batch.size")
+                .description("Tickets creados por transacción con group commit")
+                .register(meterRegistry);
+        if (enabled) {
+            executor.execute(this::collectBatches);
+        }
+    }
+
+    /**
+     * Crea el ticket, agrupándolo con las solicitudes concurrentes si el group commit está activo
+     */
+    public CompletableFuture<TicketResponse> submit(CreateTicketRequest request) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(ticketService.createTicket(request));
+        }
+        CompletableFuture<TicketResponse> result = new CompletableFuture<>();
+        pending.add(new PendingCreation(request, result));
+        return result;
+    }
+
+    private void collectBatches() {
+        List<PendingCreation> batch = new ArrayList<>(maxBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(pending.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    pending.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingCreation next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(this::reject);
+            } catch (Exception e) {
+                log.error("Error creating ticket batch", e);
+                batch.forEach(creation -> creation.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingCreation> batch) {
+        batchSizes.record(batch.size());
+        if (batch.size() == 1) {
+            createSingle(batch.get(0));
+            return;
+        }
+
+        List<CreateTicketRequest> requests = batch.stream().map(PendingCreation::request).toList();
+        List<TicketResponse> responses;
+        try {
+            responses = ticketService.createTickets(requests);
+        } catch (Exception e) {
+            log.warn("Ticket batch of {} failed, creating tickets one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(this::createSingle);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(responses.get(i));
+        }
+    }
+
+    private void createSingle(PendingCreation creation) {
+        try {
+            creation.result().complete(ticketService.createTicket(creation.request()));
+        } catch (Exception e) {
+            creation.result().completeExceptionally(e);
+        }
+    }
+
+    private void reject(PendingCreation creation) {
+        creation.result().completeExceptionally(new IllegalStateException("Ticket batcher is shutting down"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        List<PendingCreation> remaining = new ArrayList<>();
+        pending.drainTo(remaining);
+        remaining.forEach(this::reject);
+    }
+}
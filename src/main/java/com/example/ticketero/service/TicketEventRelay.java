@@ -0,0 +1,197 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.event.RemoteTicketCreatedEvent;
+import com.example.ticketero.model.event.RemoteTicketEventsGapEvent;
+import com.example.ticketero.model.event.RemoteTicketStatusChangedEvent;
+import com.example.ticketero.model.event.TicketCreatedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Propaga los eventos de tickets entre instancias con LISTEN/NOTIFY de PostgreSQL
+ * - El NOTIFY se emite dentro de la transacción que publica el evento: PostgreSQL
+ *   lo entrega solo si hace commit, y nunca antes de que los datos sean visibles
+ * - Cada instancia escucha el canal con una conexión dedicada del pool y republica
+ *   los eventos de las demás como RemoteTicket*Event
+ * - Al reconectar publica RemoteTicketEventsGapEvent, porque los eventos emitidos
+ *   mientras el canal estuvo caído se pierden
+ * - Desactivado si la base de datos no es PostgreSQL (ej: H2 en pruebas)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TicketEventRelay {
+
+    static final String CHANNEL = "ticketero_ticket_events";
+    private static final String NOTIFY = "SELECT pg_notify(?, ?)";
+    private static final int POLL_TIMEOUT_MS = 1000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile boolean active;
+    private volatile Thread listener;
+
+    @Value("${ticketero.cluster.events-enabled:true}")
+    private boolean eventsEnabled = true;
+
+    // Espera antes de reintentar la conexión de escucha
+    @Value("${ticketero.cluster.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs = 5_000;
+
+    /**
+     * Evento tal como viaja por el canal: origen y uno de los dos eventos de ticket
+     */
+    record Notification(String origin, TicketCreatedEvent created, TicketStatusChangedEvent statusChanged) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!eventsEnabled || !isPostgres()) {
+            log.info("Cluster ticket events disabled, state is shared through periodic reconciliation only");
+            return;
+        }
+
+        active = true;
+        listener = Thread.ofPlatform().name("ticket-event-listener").daemon().start(this::listen);
+    }
+
+    @EventListener
+    public void onTicketCreated(TicketCreatedEvent event) {
+        notify(new Notification(instanceId, event, null));
+    }
+
+    @EventListener
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        notify(new Notification(instanceId, null, event));
+    }
+
+    private void notify(Notification notification) {
+        if (!active) {
+            return;
+        }
+        try {
+            jdbcTemplate.query(NOTIFY, resultSet -> null, CHANNEL, objectMapper.writeValueAsString(notification));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize ticket event", e);
+        }
+    }
+
+    /**
+     * Republica un evento recibido del canal, salvo los emitidos por esta instancia
+     */
+    void handle(String payload) {
+        Notification notification;
+        try {
+            notification = objectMapper.readValue(payload, Notification.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed cluster ticket event: {}", e.getMessage());
+            return;
+        }
+
+        if (instanceId.equals(notification.origin())) {
+            return;
+        }
+        if (notification.created() != null) {
+            eventPublisher.publishEvent(new RemoteTicketCreatedEvent(notification.created()));
+        }
+        if (notification.statusChanged() != null) {
+            eventPublisher.publishEvent(new RemoteTicketStatusChangedEvent(notification.statusChanged()));
+        }
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (active) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening for cluster ticket events on channel {}", CHANNEL);
+                if (reconnecting) {
+                    eventPublisher.publishEvent(new RemoteTicketEventsGapEvent());
+                }
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (active) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!active) {
+                    return;
+                }
+                log.warn("Cluster ticket event listener disconnected, retrying in {} ms: {}",
+                        reconnectDelayMs, e.getMessage());
+                reconnecting = true;
+                if (!sleep(reconnectDelayMs)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        try {
+            handle(payload);
+        } catch (Exception e) {
+            // Un listener que falla no debe cortar la escucha del canal
+            log.error("Error handling cluster ticket event", e);
+        }
+    }
+
+    private boolean isPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isWrapperFor(PGConnection.class);
+        } catch (SQLException e) {
+            log.warn("Could not determine database type for cluster ticket events: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        active = false;
+        Thread thread = listener;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
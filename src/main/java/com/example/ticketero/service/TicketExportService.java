@@ -0,0 +1,143 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.dto.response.TicketResponse;
+import com.example.ticketero.model.enums.ExportFormat;
+import com.example.ticketero.repository.TicketRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportación de tickets creados en un rango de días hábiles
+ * - Las filas se leen con un cursor JDBC y se escriben a la respuesta a medida
+ *   que llegan: la memoria usada no depende del tamaño del rango
+ * - La transacción de solo lectura se abre en el hilo que escribe la respuesta,
+ *   porque el cursor solo vive mientras la transacción está abierta
+ */
+@Service
+@Slf4j
+public class TicketExportService {
+
+    private static final String[] CSV_HEADER = {
+            "id", "codigoReferencia", "numero", "nationalId", "telefono", "branchOffice",
+            "queueType", "status", "positionInQueue", "estimatedWaitMinutes", "assignedAdvisorId",
+            "assignedAdvisorName", "assignedModuleNumber", "createdAt", "updatedAt"
+    };
+
+    private final TicketRepository ticketRepository;
+    private final BusinessCalendar businessCalendar;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnly;
+
+    public TicketExportService(TicketRepository ticketRepository,
+                               BusinessCalendar businessCalendar,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager) {
+        this.ticketRepository = ticketRepository;
+        this.businessCalendar = businessCalendar;
+        this.objectMapper = objectMapper;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    /**
+     * Prepara la exportación de los tickets creados entre los días hábiles from y to
+     * (ambos incluidos). El rango se valida de inmediato; las filas se leen recién
+     * cuando se escribe la respuesta.
+     */
+    public StreamingResponseBody export(LocalDate from, LocalDate to, ExportFormat format, boolean gzip) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Export range start " + from + " is after end " + to);
+        }
+
+        LocalDateTime start = businessCalendar.dayRange(from).start();
+        LocalDateTime end = businessCalendar.dayRange(to).end();
+
+        return outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream) : outputStream;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8));
+            long rows = writeRows(start, end, format, writer);
+            writer.flush();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            log.info("Exported {} tickets created between {} and {} as {}", rows, start, end, format);
+        };
+    }
+
+    private long writeRows(LocalDateTime start, LocalDateTime end, ExportFormat format, Writer writer)
+            throws IOException {
+        try {
+            Long rows = readOnly.execute(status -> {
+                try (Stream<TicketResponse> tickets = ticketRepository.streamResponsesCreatedBetween(start, end)) {
+                    if (format == ExportFormat.CSV) {
+                        writeCsvLine(writer, CSV_HEADER);
+                    }
+                    long count = 0;
+                    for (TicketResponse ticket : (Iterable<TicketResponse>) tickets::iterator) {
+                        writeRow(writer, format, ticket);
+                        count++;
+                    }
+                    return count;
+                } catch (IOException e) {
+                    // Cliente desconectado u otro error de escritura: cierra el cursor y la transacción
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return rows != null ? rows : 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeRow(Writer writer, ExportFormat format, TicketResponse ticket) throws IOException {
+        switch (format) {
+            case CSV -> writeCsvLine(writer, new Object[] {
+                    ticket.id(), ticket.codigoReferencia(), ticket.numero(), ticket.nationalId(),
+                    ticket.telefono(), ticket.branchOffice(), ticket.queueType(), ticket.status(),
+                    ticket.positionInQueue(), ticket.estimatedWaitMinutes(), ticket.assignedAdvisorId(),
+                    ticket.assignedAdvisorName(), ticket.assignedModuleNumber(), ticket.createdAt(),
+                    ticket.updatedAt()
+            });
+            case NDJSON -> {
+                writer.write(objectMapper.writeValueAsString(ticket));
+                writer.write('\n');
+            }
+        }
+    }
+
+    private void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvValue(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: se citan los valores con coma, comillas o saltos de línea
+    private static String csvValue(Object value) {
+        String text = Objects.toString(value, "");
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
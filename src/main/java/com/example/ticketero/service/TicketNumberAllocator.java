@@ -0,0 +1,128 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.TicketNumberCounter;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.repository.TicketNumberCounterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asignador de números de ticket por sucursal, cola y día hábil
+ * - Reserva bloques de números en ticket_number_counter en una transacción propia,
+ *   así el bloqueo de la fila dura solo la reserva y no la creación del ticket
+ * - Entrega los números del bloque desde memoria; solo vuelve a la base de datos
+ *   cuando el bloque se agota
+ * - Con varias instancias cada una reserva bloques distintos: no hay colisiones,
+ *   pero puede haber saltos en la numeración (bloques no usados al reiniciar)
+ */
+@Component
+@Slf4j
+public class TicketNumberAllocator {
+
+    private final TicketNumberCounterRepository counterRepository;
+    private final TransactionTemplate requiresNew;
+    private final Map<CounterKey, NumberBlock> blocks = new ConcurrentHashMap<>();
+
+    @Value("${ticketero.ticket-number.block-size:10}")
+    private int blockSize = 10;
+
+    public TicketNumberAllocator(TicketNumberCounterRepository counterRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.counterRepository = counterRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Siguiente número visible (ej: C01) para la sucursal, cola y día hábil
+     */
+    public String nextNumber(String branchOffice, QueueType queueType, LocalDate businessDate) {
+        return nextNumbers(branchOffice, queueType, businessDate, 1).get(0);
+    }
+
+    /**
+     * Siguientes count números consecutivos para la sucursal, cola y día hábil.
+     * Si el bloque vigente no alcanza se reserva uno de al menos lo que falta,
+     * así un lote grande va una sola vez a la base de datos.
+     */
+    public List<String> nextNumbers(String branchOffice, QueueType queueType, LocalDate businessDate, int count) {
+        CounterKey key = new CounterKey(branchOffice, queueType, businessDate);
+        NumberBlock block = blocks.computeIfAbsent(key, k -> new NumberBlock());
+
+        List<String> numbers = new ArrayList<>(count);
+        synchronized (block) {
+            while (numbers.size() < count) {
+                if (block.isExhausted()) {
+                    int size = Math.max(blockSize, count - numbers.size());
+                    int last = reserveBlock(key, size);
+                    block.reset(last - size + 1, last);
+                    evictPreviousDays(businessDate);
+                }
+                numbers.add(String.format("%c%02d", queueType.getPrefix(), block.next++));
+            }
+        }
+        return numbers;
+    }
+
+    private int reserveBlock(CounterKey key, int size) {
+        try {
+            return requiresNew.execute(status -> incrementCounter(key, size));
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia creó el contador del día al mismo tiempo: ahora existe y se bloquea
+            log.debug("Ticket number counter created concurrently for {}, retrying", key);
+            return requiresNew.execute(status -> incrementCounter(key, size));
+        }
+    }
+
+    private int incrementCounter(CounterKey key, int size) {
+        TicketNumberCounter counter = counterRepository
+                .findByBranchOfficeAndQueueTypeAndBusinessDate(key.branchOffice(), key.queueType(), key.businessDate())
+                .orElseGet(() -> TicketNumberCounter.builder()
+                        .branchOffice(key.branchOffice())
+                        .queueType(key.queueType())
+                        .businessDate(key.businessDate())
+                        .lastNumber(0)
+                        .build());
+
+        counter.setLastNumber(counter.getLastNumber() + size);
+        counterRepository.saveAndFlush(counter);
+
+        log.debug("Reserved ticket numbers up to {} for {}", counter.getLastNumber(), key);
+        return counter.getLastNumber();
+    }
+
+    private void evictPreviousDays(LocalDate businessDate) {
+        blocks.keySet().removeIf(key -> key.businessDate().isBefore(businessDate));
+    }
+
+    private record CounterKey(String branchOffice, QueueType queueType, LocalDate businessDate) {
+    }
+
+    /**
+     * Rango [next, last] de números reservados y aún no entregados
+     */
+    private static final class NumberBlock {
+        private int next = 1;
+        private int last = 0;
+
+        boolean isExhausted() {
+            return next > last;
+        }
+
+        void reset(int first, int last) {
+            this.next = first;
+            this.last = last;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.event.RemoteTicketCreatedEvent;
+import com.example.ticketero.model.event.RemoteTicketStatusChangedEvent;
+import com.example.ticketero.model.event.TicketCreatedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice en memoria de las colas de espera, una por (sucursal, tipo de cola).
+ * Se reconstruye desde la base de datos al iniciar y se mantiene al crear,
+ * asignar, completar o cancelar tickets, de modo que la posición de un ticket
+ * cuesta O(log n) en vez de recorrer la cola.
+ * También sigue los tickets de otras instancias (TicketEventRelay): se agregan
+ * al final de su cola en el orden en que llegan sus eventos, y la reconciliación
+ * periódica corrige el orden exacto.
+ */
+@Component
+@Slf4j
+public class TicketQueueIndex {
+
+    private final Map<QueueKey, RankedQueue> queues = new HashMap<>();
+    private final Map<Long, QueueKey> keyByTicketId = new HashMap<>();
+    private final Set<QueueKey> dirtyQueues = new LinkedHashSet<>();
+    private boolean stale = true;
+
+    /**
+     * Identifica una cola: sucursal + tipo de cola
+     */
+    public record QueueKey(String branchOffice, QueueType queueType) {
+
+        public static QueueKey of(Ticket ticket) {
+            return new QueueKey(ticket.getBranchOffice(), ticket.getQueueType());
+        }
+    }
+
+    /**
+     * Reemplaza el contenido del índice con los tickets en espera recibidos,
+     * que deben venir ordenados por fecha de creación.
+     */
+    public synchronized void rebuild(List<Ticket> waitingTickets) {
+        queues.clear();
+        keyByTicketId.clear();
+        dirtyQueues.clear();
+
+        for (Ticket ticket : waitingTickets) {
+            append(QueueKey.of(ticket), ticket.getId());
+        }
+
+        stale = false;
+        log.info("Queue index rebuilt with {} waiting tickets in {} queues", keyByTicketId.size(), queues.size());
+    }
+
+    /**
+     * Marca el índice como desfasado para que se reconstruya en el próximo ciclo
+     */
+    public synchronized void invalidate() {
+        stale = true;
+    }
+
+    public synchronized boolean isStale() {
+        return stale;
+    }
+
+    public synchronized boolean isEmpty() {
+        return keyByTicketId.isEmpty();
+    }
+
+    /**
+     * Agrega un ticket al final de su cola (no hace nada si ya está indexado)
+     */
+    public synchronized void enqueue(Ticket ticket) {
+        enqueue(QueueKey.of(ticket), ticket.getId());
+    }
+
+    public synchronized void enqueue(QueueKey key, Long ticketId) {
+        if (!keyByTicketId.containsKey(ticketId)) {
+            append(key, ticketId);
+        }
+    }
+
+    // Se aplican antes que el resto de los listeners, que leen posiciones del índice
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onRemoteTicketCreated(RemoteTicketCreatedEvent remote) {
+        TicketCreatedEvent event = remote.event();
+        enqueue(new QueueKey(event.branchOffice(), event.queueType()), event.ticketId());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onRemoteTicketStatusChanged(RemoteTicketStatusChangedEvent remote) {
+        TicketStatusChangedEvent event = remote.event();
+        if (event.newStatus().isWaiting()) {
+            enqueue(new QueueKey(event.branchOffice(), event.queueType()), event.ticketId());
+        } else {
+            remove(event.ticketId());
+        }
+    }
+
+    /**
+     * Quita un ticket de su cola (no hace nada si no está indexado)
+     */
+    public synchronized void remove(Long ticketId) {
+        QueueKey key = keyByTicketId.remove(ticketId);
+        if (key != null) {
+            queues.get(key).remove(ticketId);
+            dirtyQueues.add(key);
+        }
+    }
+
+    /**
+     * Marca una cola como cambiada aunque el cambio no pasó por el índice
+     * (ej: se asignó un ticket de otra instancia que aún no estaba indexado)
+     */
+    public synchronized void markDirty(QueueKey key) {
+        dirtyQueues.add(key);
+    }
+
+    /**
+     * Colas conocidas por el índice: con tickets en espera o que los tuvieron desde la
+     * última reconstrucción. Es solo una pista de dónde reclamar tickets en la base de datos
+     */
+    public synchronized List<QueueKey> knownQueues() {
+        return List.copyOf(queues.keySet());
+    }
+
+    /**
+     * Posición (1-based) del ticket en su cola, o 0 si no está en espera
+     */
+    public synchronized int positionOf(Long ticketId) {
+        QueueKey key = keyByTicketId.get(ticketId);
+        return key != null ? queues.get(key).rankOf(ticketId) : 0;
+    }
+
+    public synchronized int size(QueueKey key) {
+        RankedQueue queue = queues.get(key);
+        return queue != null ? queue.size() : 0;
+    }
+
+    /**
+     * IDs de los tickets de una cola en orden de atención
+     */
+    public synchronized List<Long> ticketIds(QueueKey key) {
+        RankedQueue queue = queues.get(key);
+        return queue != null ? queue.ticketIdsInOrder() : List.of();
+    }
+
+    /**
+     * Retorna y limpia las colas cuyo orden cambió desde la última llamada
+     */
+    public synchronized Set<QueueKey> drainDirtyQueues() {
+        Set<QueueKey> drained = new LinkedHashSet<>(dirtyQueues);
+        dirtyQueues.clear();
+        return drained;
+    }
+
+    private void append(QueueKey key, Long ticketId) {
+        queues.computeIfAbsent(key, k -> new RankedQueue()).append(ticketId);
+        keyByTicketId.put(ticketId, key);
+        dirtyQueues.add(key);
+    }
+
+    /**
+     * Cola FIFO con ranking en O(log n): cada ticket ocupa un slot creciente y
+     * un árbol de Fenwick cuenta los slots vivos, de modo que la posición es
+     * la suma de prefijo hasta su slot. Los slots liberados se compactan cuando
+     * superan a los vivos.
+     */
+    static final class RankedQueue {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private long[] ticketIds = new long[INITIAL_CAPACITY];
+        private boolean[] live = new boolean[INITIAL_CAPACITY];
+        private int[] tree = new int[INITIAL_CAPACITY + 1];
+        private final Map<Long, Integer> slotByTicketId = new HashMap<>();
+        private int nextSlot;
+
+        void append(Long ticketId) {
+            if (nextSlot == ticketIds.length) {
+                resize(size() * 2 < nextSlot ? ticketIds.length : ticketIds.length * 2);
+            }
+            int slot = nextSlot++;
+            ticketIds[slot] = ticketId;
+            live[slot] = true;
+            slotByTicketId.put(ticketId, slot);
+            add(slot, 1);
+        }
+
+        void remove(Long ticketId) {
+            Integer slot = slotByTicketId.remove(ticketId);
+            if (slot != null) {
+                live[slot] = false;
+                add(slot, -1);
+            }
+        }
+
+        int rankOf(Long ticketId) {
+            Integer slot = slotByTicketId.get(ticketId);
+            return slot != null ? prefixSum(slot) : 0;
+        }
+
+        int size() {
+            return slotByTicketId.size();
+        }
+
+        List<Long> ticketIdsInOrder() {
+            List<Long> ids = new ArrayList<>(size());
+            for (int slot = 0; slot < nextSlot; slot++) {
+                if (live[slot]) {
+                    ids.add(ticketIds[slot]);
+                }
+            }
+            return ids;
+        }
+
+        /**
+         * Copia los slots vivos al inicio de arreglos de la capacidad dada y
+         * reconstruye el árbol en O(n)
+         */
+        private void resize(int capacity) {
+            long[] newTicketIds = new long[capacity];
+            boolean[] newLive = new boolean[capacity];
+            int[] newTree = new int[capacity + 1];
+
+            int target = 0;
+            for (int slot = 0; slot < nextSlot; slot++) {
+                if (live[slot]) {
+                    newTicketIds[target] = ticketIds[slot];
+                    newLive[target] = true;
+                    slotByTicketId.put(ticketIds[slot], target);
+                    target++;
+                }
+            }
+
+            for (int i = 1; i <= capacity; i++) {
+                if (newLive[i - 1]) {
+                    newTree[i] += 1;
+                }
+                int parent = i + (i & -i);
+                if (parent <= capacity) {
+                    newTree[parent] += newTree[i];
+                }
+            }
+
+            ticketIds = newTicketIds;
+            live = newLive;
+            tree = newTree;
+            nextSlot = target;
+        }
+
+        private void add(int slot, int delta) {
+            for (int i = slot + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        private int prefixSum(int slot) {
+            int sum = 0;
+            for (int i = slot + 1; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+    }
+}
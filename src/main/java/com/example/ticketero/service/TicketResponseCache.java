@@ -0,0 +1,218 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.dto.response.TicketResponse;
+import com.example.ticketero.model.event.RemoteTicketCreatedEvent;
+import com.example.ticketero.model.event.RemoteTicketEventsGapEvent;
+import com.example.ticketero.model.event.RemoteTicketStatusChangedEvent;
+import com.example.ticketero.model.event.TicketCreatedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Caché de lectura de TicketResponse por id, código de referencia y número
+ * - Acotado por tamaño (LRU) y por TTL
+ * - Se invalida con cada cambio de estado confirmado y con cada ticket nuevo
+ *   (un número nuevo puede reemplazar al de otro día/sucursal en findByNumero),
+ *   incluidos los de otras instancias (TicketEventRelay); al reconectar el canal
+ *   se vacía completo
+ * - Si el canal entre instancias está desactivado o caído, un cambio hecho en otra
+ *   instancia puede leerse desactualizado hasta ttl-ms
+ * - Una carga que se cruza con una invalidación no se guarda, para no
+ *   reinstalar una versión anterior al cambio
+ * - Publica métricas ticketero.ticket.cache.requests{result=hit|miss} y
+ *   ticketero.ticket.cache.size
+ */
+@Component
+@Slf4j
+public class TicketResponseCache {
+
+    private final Map<Long, CachedTicket> byId = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<UUID, Long> idByCodigo = new HashMap<>();
+    private final Map<String, Long> idByNumero = new HashMap<>();
+    private long invalidations;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${ticketero.ticket-cache.max-size:10000}")
+    private int maxSize = 10_000;
+
+    @Value("${ticketero.ticket-cache.ttl-ms:30000}")
+    private long ttlMs = 30_000;
+
+    public TicketResponseCache(MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("ticketero.ticket.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("ticketero.ticket.cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("ticketero.ticket.cache.size", this, TicketResponseCache::size)
+                .register(meterRegistry);
+    }
+
+    private record CachedTicket(TicketResponse response, String numeroKey, long expiresAtNanos) {
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    public Optional<TicketResponse> findById(Long id, Supplier<Optional<TicketResponse>> loader) {
+        return lookup(id, null, loader);
+    }
+
+    public Optional<TicketResponse> findByCodigoReferencia(UUID codigoReferencia,
+                                                           Supplier<Optional<TicketResponse>> loader) {
+        Long id;
+        synchronized (this) {
+            id = idByCodigo.get(codigoReferencia);
+        }
+        return lookup(id, null, loader);
+    }
+
+    public Optional<TicketResponse> findByNumero(String numero, Supplier<Optional<TicketResponse>> loader) {
+        Long id;
+        synchronized (this) {
+            id = idByNumero.get(numero);
+        }
+        return lookup(id, numero, loader);
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    /**
+     * Elimina el ticket del caché (todas sus claves)
+     */
+    public synchronized void invalidate(Long ticketId) {
+        invalidations++;
+        remove(ticketId);
+    }
+
+    /**
+     * Elimina la asociación de un número, que pasa a corresponder a otro ticket
+     */
+    public synchronized void invalidateNumero(String numero) {
+        invalidations++;
+        Long id = idByNumero.remove(numero);
+        if (id != null) {
+            remove(id);
+        }
+    }
+
+    public synchronized void clear() {
+        invalidations++;
+        byId.clear();
+        idByCodigo.clear();
+        idByNumero.clear();
+    }
+
+    // Se invalida antes que el resto de los listeners, que pueden volver a leer el ticket
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        invalidate(event.ticketId());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketCreated(TicketCreatedEvent event) {
+        if (event.numero() != null) {
+            invalidateNumero(event.numero());
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onRemoteTicketStatusChanged(RemoteTicketStatusChangedEvent remote) {
+        onTicketStatusChanged(remote.event());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onRemoteTicketCreated(RemoteTicketCreatedEvent remote) {
+        onTicketCreated(remote.event());
+    }
+
+    // Pudieron perderse invalidaciones de otras instancias
+    @EventListener
+    public void onRemoteTicketEventsGap(RemoteTicketEventsGapEvent gap) {
+        clear();
+    }
+
+    private Optional<TicketResponse> lookup(Long id, String numero, Supplier<Optional<TicketResponse>> loader) {
+        long invalidationsBeforeLoad;
+        synchronized (this) {
+            if (id != null) {
+                CachedTicket cached = byId.get(id);
+                if (cached != null && !cached.isExpired(System.nanoTime())) {
+                    hits.increment();
+                    return Optional.of(cached.response());
+                }
+                if (cached != null) {
+                    remove(id);
+                }
+            }
+            misses.increment();
+            invalidationsBeforeLoad = invalidations;
+        }
+
+        Optional<TicketResponse> loaded = loader.get();
+        loaded.ifPresent(response -> store(response, numero, invalidationsBeforeLoad));
+        return loaded;
+    }
+
+    private synchronized void store(TicketResponse response, String numero, long invalidationsBeforeLoad) {
+        if (invalidations != invalidationsBeforeLoad) {
+            return;
+        }
+
+        remove(response.id());
+        byId.put(response.id(), new CachedTicket(response, numero, System.nanoTime() + ttlMs * 1_000_000));
+        idByCodigo.put(response.codigoReferencia(), response.id());
+        if (numero != null) {
+            idByNumero.put(numero, response.id());
+        }
+
+        // Expulsar los menos usados recientemente
+        Iterator<Map.Entry<Long, CachedTicket>> eldest = byId.entrySet().iterator();
+        while (byId.size() > maxSize && eldest.hasNext()) {
+            CachedTicket evicted = eldest.next().getValue();
+            eldest.remove();
+            removeSecondaryKeys(evicted);
+        }
+    }
+
+    private void remove(Long ticketId) {
+        CachedTicket removed = byId.remove(ticketId);
+        if (removed != null) {
+            removeSecondaryKeys(removed);
+        }
+    }
+
+    private void removeSecondaryKeys(CachedTicket cached) {
+        idByCodigo.remove(cached.response().codigoReferencia());
+        if (cached.numeroKey() != null) {
+            idByNumero.remove(cached.numeroKey(), cached.response().id());
+        }
+    }
+}
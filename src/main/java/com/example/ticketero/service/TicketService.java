@@ -2,19 +2,32 @@ package com.example.ticketero.service;
 
 import com.example.ticketero.model.dto.request.CreateTicketRequest;
 import com.example.ticketero.model.dto.request.UpdateTicketStatusRequest;
+import com.example.ticketero.model.dto.response.PageResponse;
 import com.example.ticketero.model.dto.response.TicketResponse;
 import com.example.ticketero.model.entity.Advisor;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketCreatedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
 import com.example.ticketero.repository.AdvisorRepository;
 import com.example.ticketero.repository.TicketRepository;
+import com.example.ticketero.util.PageCursor;
+import com.example.ticketero.util.TransactionCallbacks;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,16 +39,28 @@ public class TicketService {
 
     private final TicketRepository ticketRepository;
     private final AdvisorRepository advisorRepository;
+    private final TicketQueueIndex queueIndex;
+    private final TicketNumberAllocator ticketNumberAllocator;
+    private final BusinessCalendar businessCalendar;
+    private final ActiveTicketCounters activeTicketCounters;
+    private final TicketResponseCache ticketResponseCache;
+    private final MessageService messageService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Tamaño máximo de página de los listados, sin importar lo que pida el cliente
+    @Value("${ticketero.pagination.max-page-size:200}")
+    private int maxPageSize = 200;
 
     @Transactional
     public TicketResponse createTicket(CreateTicketRequest request) {
         log.info("Creating ticket for nationalId: {}, queueType: {}", request.nationalId(), request.queueType());
 
-        // Generar número de ticket
-        String numero = generateTicketNumber(request.queueType());
+        // Generar número de ticket (único por sucursal y día hábil)
+        LocalDate businessDate = businessCalendar.today(request.branchOffice());
+        String numero = ticketNumberAllocator.nextNumber(request.branchOffice(), request.queueType(), businessDate);
         
         // Calcular posición en cola y tiempo estimado
-        int positionInQueue = calculateQueuePosition(request.queueType());
+        int positionInQueue = calculateQueuePosition(request.branchOffice(), request.queueType());
         int estimatedWaitMinutes = calculateEstimatedWaitTime(request.queueType(), positionInQueue);
 
         Ticket ticket = Ticket.builder()
@@ -44,6 +69,7 @@ public class TicketService {
                 .branchOffice(request.branchOffice())
                 .queueType(request.queueType())
                 .numero(numero)
+                .businessDate(businessDate)
                 .positionInQueue(positionInQueue)
                 .estimatedWaitMinutes(estimatedWaitMinutes)
                 .status(TicketStatus.EN_ESPERA)
@@ -52,9 +78,72 @@ public class TicketService {
         Ticket savedTicket = ticketRepository.save(ticket);
         log.info("Ticket created with number: {} and ID: {}", numero, savedTicket.getId());
 
+        // Agregar a la cola en memoria solo cuando el ticket quede confirmado
+        TransactionCallbacks.afterCommit(() -> queueIndex.enqueue(savedTicket));
+        messageService.scheduleTicketCreatedMessage(savedTicket);
+        eventPublisher.publishEvent(TicketCreatedEvent.of(savedTicket));
+
         return toResponse(savedTicket);
     }
 
+    /**
+     * Crea un lote de tickets en una sola transacción (ver TicketCreationBatcher)
+     * - Números reservados de una vez por sucursal y cola
+     * - Posiciones consecutivas dentro del lote: los contadores en memoria recién
+     *   se actualizan al confirmar la transacción
+     * - Tickets y confirmaciones insertados en un batch JDBC cada uno
+     * @return respuestas en el mismo orden que las solicitudes
+     */
+    @Transactional
+    public List<TicketResponse> createTickets(List<CreateTicketRequest> requests) {
+        log.info("Creating batch of {} tickets", requests.size());
+
+        Map<QueueSlot, List<Integer>> indexesByQueue = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateTicketRequest request = requests.get(i);
+            indexesByQueue.computeIfAbsent(new QueueSlot(request.branchOffice(), request.queueType()),
+                    slot -> new ArrayList<>()).add(i);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Ticket[] tickets = new Ticket[requests.size()];
+        indexesByQueue.forEach((slot, indexes) -> {
+            LocalDate businessDate = businessCalendar.today(slot.branchOffice());
+            List<String> numeros = ticketNumberAllocator.nextNumbers(
+                    slot.branchOffice(), slot.queueType(), businessDate, indexes.size());
+            int firstPosition = calculateQueuePosition(slot.branchOffice(), slot.queueType());
+
+            for (int n = 0; n < indexes.size(); n++) {
+                CreateTicketRequest request = requests.get(indexes.get(n));
+                int positionInQueue = firstPosition + n;
+                tickets[indexes.get(n)] = Ticket.builder()
+                        .codigoReferencia(UUID.randomUUID())
+                        .nationalId(request.nationalId())
+                        .telefono(request.telefono())
+                        .branchOffice(request.branchOffice())
+                        .queueType(request.queueType())
+                        .numero(numeros.get(n))
+                        .businessDate(businessDate)
+                        .positionInQueue(positionInQueue)
+                        .estimatedWaitMinutes(calculateEstimatedWaitTime(request.queueType(), positionInQueue))
+                        .status(TicketStatus.EN_ESPERA)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build();
+            }
+        });
+
+        List<Ticket> created = List.of(tickets);
+        ticketRepository.insertAll(created);
+        log.info("Batch of {} tickets created", created.size());
+
+        TransactionCallbacks.afterCommit(() -> created.forEach(queueIndex::enqueue));
+        messageService.scheduleTicketCreatedMessages(created);
+        created.forEach(ticket -> eventPublisher.publishEvent(TicketCreatedEvent.of(ticket)));
+
+        return created.stream().map(this::toResponse).toList();
+    }
+
     @Transactional
     public TicketResponse updateTicketStatus(Long ticketId, UpdateTicketStatusRequest request) {
         log.info("Updating ticket {} to status: {}", ticketId, request.status());
@@ -62,6 +151,7 @@ public class TicketService {
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket not found with ID: " + ticketId));
 
+        TicketStatus previousStatus = ticket.getStatus();
         ticket.setStatus(request.status());
 
         if (request.assignedAdvisorId() != null) {
@@ -75,52 +165,131 @@ public class TicketService {
             ticket.setAssignedModuleNumber(request.assignedModuleNumber());
         }
 
+        // Mantener la cola en memoria alineada con el nuevo estado
+        if (request.status() == TicketStatus.EN_ESPERA || request.status() == TicketStatus.PROXIMO) {
+            TransactionCallbacks.afterCommit(() -> queueIndex.enqueue(ticket));
+        } else {
+            TransactionCallbacks.afterCommit(() -> queueIndex.remove(ticketId));
+        }
+        if (!request.status().isActive()) {
+            messageService.discardPendingMessages(ticketId);
+        }
+        eventPublisher.publishEvent(TicketStatusChangedEvent.of(ticket, previousStatus));
+
         return toResponse(ticket);
     }
 
+    // Lecturas individuales desde el caché; la posición vigente se toma del índice en memoria
     public Optional<TicketResponse> findById(Long id) {
-        return ticketRepository.findById(id).map(this::toResponse);
+        return ticketResponseCache.findById(id,
+                        () -> ticketRepository.findById(id).map(this::toResponse))
+                .map(this::withCurrentPosition);
     }
 
     public Optional<TicketResponse> findByCodigoReferencia(UUID codigoReferencia) {
-        return ticketRepository.findByCodigoReferencia(codigoReferencia).map(this::toResponse);
+        return ticketResponseCache.findByCodigoReferencia(codigoReferencia,
+                        () -> ticketRepository.findByCodigoReferencia(codigoReferencia).map(this::toResponse))
+                .map(this::withCurrentPosition);
     }
 
     public Optional<TicketResponse> findByNumero(String numero) {
-        return ticketRepository.findByNumero(numero).map(this::toResponse);
+        return ticketResponseCache.findByNumero(numero,
+                        () -> ticketRepository.findFirstByNumeroOrderByCreatedAtDesc(numero).map(this::toResponse))
+                .map(this::withCurrentPosition);
     }
 
-    public List<TicketResponse> findByStatus(TicketStatus status) {
-        return ticketRepository.findByStatus(status)
+    // Listados paginados por keyset: una sola consulta proyectada por página
+    // (sin entidades ni carga perezosa del asesor)
+    public PageResponse<TicketResponse> findByStatus(TicketStatus status, String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = pageSize(limit);
+        List<TicketResponse> rows = ticketRepository
+                .findResponsesByStatusAfter(status, after.createdAt(), after.id(), PageRequest.ofSize(pageSize + 1))
                 .stream()
-                .map(this::toResponse)
+                .map(this::withCurrentPosition)
                 .toList();
+        return PageResponse.of(rows, pageSize, this::cursorOf);
     }
 
-    public List<TicketResponse> findActiveTicketsByQueueType(QueueType queueType) {
+    public PageResponse<TicketResponse> findActiveTicketsByQueueType(QueueType queueType, String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = pageSize(limit);
+        List<TicketResponse> rows = ticketRepository
+                .findActiveResponsesByQueueTypeAfter(queueType, TicketStatus.getActiveStatuses(),
+                        after.createdAt(), after.id(), PageRequest.ofSize(pageSize + 1))
+                .stream()
+                .map(this::withCurrentPosition)
+                .toList();
+        return PageResponse.of(rows, pageSize, this::cursorOf);
+    }
+
+    // Cola activa completa de la sucursal (acotada por naturaleza) para el estado inicial de las pantallas
+    public List<TicketResponse> findActiveTicketsByBranchOfficeAndQueueType(String branchOffice, QueueType queueType) {
         List<TicketStatus> activeStatuses = TicketStatus.getActiveStatuses();
-        return ticketRepository.findActiveTicketsByQueueType(queueType, activeStatuses)
+        return ticketRepository.findActiveResponsesByBranchOfficeAndQueueType(branchOffice, queueType, activeStatuses)
                 .stream()
-                .map(this::toResponse)
+                .map(this::withCurrentPosition)
                 .toList();
     }
 
-    private String generateTicketNumber(QueueType queueType) {
-        char prefix = queueType.getPrefix();
-        long count = ticketRepository.countByQueueType(queueType) + 1;
-        return String.format("%c%02d", prefix, count);
+    private int pageSize(int limit) {
+        return Math.clamp(limit, 1, maxPageSize);
     }
 
-    private int calculateQueuePosition(QueueType queueType) {
-        List<TicketStatus> activeStatuses = TicketStatus.getActiveStatuses();
-        return (int) ticketRepository.findActiveTicketsByQueueType(queueType, activeStatuses).size() + 1;
+    private PageCursor cursorOf(TicketResponse response) {
+        return new PageCursor(response.createdAt(), response.id());
+    }
+
+    private int calculateQueuePosition(String branchOffice, QueueType queueType) {
+        // Contador en memoria: crear un ticket no lee la cola
+        return (int) activeTicketCounters.count(branchOffice, queueType) + 1;
     }
 
     private int calculateEstimatedWaitTime(QueueType queueType, int position) {
         return (position - 1) * queueType.getAvgTimeMinutes();
     }
 
+    private record QueueSlot(String branchOffice, QueueType queueType) {
+    }
+
+    /**
+     * Actualiza posición y tiempo estimado de una respuesta ya construida usando
+     * el índice en memoria, sin consultar la base de datos
+     */
+    public TicketResponse withCurrentPosition(TicketResponse response) {
+        int indexedPosition = queueIndex.positionOf(response.id());
+        if (indexedPosition <= 0 || Integer.valueOf(indexedPosition).equals(response.positionInQueue())) {
+            return response;
+        }
+
+        return new TicketResponse(
+                response.id(),
+                response.codigoReferencia(),
+                response.numero(),
+                response.nationalId(),
+                response.telefono(),
+                response.branchOffice(),
+                response.queueType(),
+                response.status(),
+                indexedPosition,
+                calculateEstimatedWaitTime(response.queueType(), indexedPosition),
+                response.assignedAdvisorId(),
+                response.assignedAdvisorName(),
+                response.assignedModuleNumber(),
+                response.createdAt(),
+                response.updatedAt()
+        );
+    }
+
     private TicketResponse toResponse(Ticket ticket) {
+        // Para tickets en espera la posición vigente viene del índice en memoria;
+        // el valor persistido solo se usa si el ticket no está indexado
+        int indexedPosition = queueIndex.positionOf(ticket.getId());
+        Integer positionInQueue = indexedPosition > 0 ? indexedPosition : ticket.getPositionInQueue();
+        Integer estimatedWaitMinutes = indexedPosition > 0
+                ? calculateEstimatedWaitTime(ticket.getQueueType(), indexedPosition)
+                : ticket.getEstimatedWaitMinutes();
+
         return new TicketResponse(
                 ticket.getId(),
                 ticket.getCodigoReferencia(),
@@ -130,8 +299,8 @@ public class TicketService {
                 ticket.getBranchOffice(),
                 ticket.getQueueType(),
                 ticket.getStatus(),
-                ticket.getPositionInQueue(),
-                ticket.getEstimatedWaitMinutes(),
+                positionInQueue,
+                estimatedWaitMinutes,
                 ticket.getAssignedAdvisor() != null ? ticket.getAssignedAdvisor().getId() : null,
                 ticket.getAssignedAdvisor() != null ? ticket.getAssignedAdvisor().getName() : null,
                 ticket.getAssignedModuleNumber(),
@@ -0,0 +1,170 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.dto.response.TicketResponse;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.RemoteTicketEventsGapEvent;
+import com.example.ticketero.model.event.RemoteTicketStatusChangedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import com.example.ticketero.service.TicketQueueIndex.QueueKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Long-poll del estado de un ticket para el teléfono del cliente
+ * - La solicitud queda estacionada (servlet asíncrono, sin ocupar un hilo) hasta
+ *   que cambie el estado o la posición del ticket, o hasta el timeout
+ * - Un cambio de estado despierta solo a quienes esperan ese ticket; cuando un
+ *   ticket sale de la cola se recalcula la posición (en memoria) de quienes
+ *   esperan en la misma cola
+ * - Sigue también los cambios de otras instancias (TicketEventRelay); si el canal
+ *   se cortó, vuelve a leer cada ticket en espera. Sin canal, el timeout responde
+ *   igual el estado vigente leído de la base de datos
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketWatchService {
+
+    private final TicketService ticketService;
+
+    private final Map<Long, Set<Watcher>> watchersByTicket = new ConcurrentHashMap<>();
+    private final Map<QueueKey, Set<Watcher>> watchersByQueue = new ConcurrentHashMap<>();
+
+    @Value("${ticketero.ticket-watch.timeout-ms:30000}")
+    private long timeoutMs = 30_000;
+
+    /**
+     * Solicitud en espera y la última versión del ticket que conoce
+     */
+    private record Watcher(DeferredResult<ResponseEntity<TicketResponse>> result, TicketResponse lastKnown) {
+    }
+
+    /**
+     * Responde apenas el ticket difiera del estado y posición que el cliente ya conoce;
+     * si no hay cambios antes del timeout, responde con el estado actual
+     */
+    public DeferredResult<ResponseEntity<TicketResponse>> watch(UUID codigoReferencia,
+                                                                TicketStatus knownStatus,
+                                                                Integer knownPosition) {
+        DeferredResult<ResponseEntity<TicketResponse>> result = new DeferredResult<>(timeoutMs);
+
+        Optional<TicketResponse> ticket = ticketService.findByCodigoReferencia(codigoReferencia);
+        if (ticket.isEmpty()) {
+            result.setResult(ResponseEntity.notFound().build());
+            return result;
+        }
+
+        TicketResponse current = ticket.get();
+        if (hasChanged(current, knownStatus, knownPosition) || !current.status().isActive()) {
+            result.setResult(ResponseEntity.ok(current));
+            return result;
+        }
+
+        Watcher watcher = new Watcher(result, current);
+        QueueKey queueKey = new QueueKey(current.branchOffice(), current.queueType());
+        register(watchersByTicket, current.id(), watcher);
+        register(watchersByQueue, queueKey, watcher);
+
+        // Al vencer se responde el estado vigente (cubre cambios ocurridos antes de registrarse)
+        result.onTimeout(() -> result.setResult(ticketService.findById(current.id())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build())));
+        result.onCompletion(() -> {
+            unregister(watchersByTicket, current.id(), watcher);
+            unregister(watchersByQueue, queueKey, watcher);
+        });
+        return result;
+    }
+
+    public int watcherCount(Long ticketId) {
+        Set<Watcher> watchers = watchersByTicket.get(ticketId);
+        return watchers != null ? watchers.size() : 0;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        // Quienes esperan este ticket reciben la versión actualizada (una lectura por cambio)
+        Set<Watcher> ticketWatchers = watchersByTicket.get(event.ticketId());
+        if (ticketWatchers != null && !ticketWatchers.isEmpty()) {
+            ticketService.findById(event.ticketId()).ifPresent(updated ->
+                    ticketWatchers.forEach(watcher -> watcher.result().setResult(ResponseEntity.ok(updated))));
+        }
+
+        // Si el ticket dejó la cola, avanzan los que estaban detrás en la misma cola
+        if (isWaiting(event.previousStatus()) && !isWaiting(event.newStatus())) {
+            notifyPositionChanges(new QueueKey(event.branchOffice(), event.queueType()));
+        }
+    }
+
+    @EventListener
+    public void onRemoteTicketStatusChanged(RemoteTicketStatusChangedEvent remote) {
+        onTicketStatusChanged(remote.event());
+    }
+
+    /**
+     * Pudieron perderse cambios de otras instancias: se responde a quienes esperan
+     * un ticket cuyo estado o posición ya no coincide con la base de datos
+     */
+    @EventListener
+    public void onRemoteTicketEventsGap(RemoteTicketEventsGapEvent gap) {
+        watchersByTicket.forEach((ticketId, watchers) -> ticketService.findById(ticketId).ifPresent(current ->
+                watchers.stream()
+                        .filter(watcher -> hasChanged(current, watcher.lastKnown().status(),
+                                watcher.lastKnown().positionInQueue()))
+                        .forEach(watcher -> watcher.result().setResult(ResponseEntity.ok(current)))));
+    }
+
+    private void notifyPositionChanges(QueueKey queueKey) {
+        Set<Watcher> queueWatchers = watchersByQueue.get(queueKey);
+        if (queueWatchers == null) {
+            return;
+        }
+
+        for (Watcher watcher : queueWatchers) {
+            if (watcher.result().isSetOrExpired()) {
+                continue;
+            }
+            TicketResponse updated = ticketService.withCurrentPosition(watcher.lastKnown());
+            if (!Objects.equals(updated.positionInQueue(), watcher.lastKnown().positionInQueue())) {
+                watcher.result().setResult(ResponseEntity.ok(updated));
+            }
+        }
+    }
+
+    private static <K> void register(Map<K, Set<Watcher>> watchers, K key, Watcher watcher) {
+        watchers.compute(key, (k, set) -> {
+            Set<Watcher> registered = set != null ? set : ConcurrentHashMap.newKeySet();
+            registered.add(watcher);
+            return registered;
+        });
+    }
+
+    private static <K> void unregister(Map<K, Set<Watcher>> watchers, K key, Watcher watcher) {
+        watchers.computeIfPresent(key, (k, set) -> {
+            set.remove(watcher);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private boolean hasChanged(TicketResponse current, TicketStatus knownStatus, Integer knownPosition) {
+        return (knownStatus != null && knownStatus != current.status())
+                || (knownPosition != null && !knownPosition.equals(current.positionInQueue()));
+    }
+
+    private boolean isWaiting(TicketStatus status) {
+        return status == TicketStatus.EN_ESPERA || status == TicketStatus.PROXIMO;
+    }
+}
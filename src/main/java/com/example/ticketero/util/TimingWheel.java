@@ -0,0 +1,142 @@
+package com.example.ticketero.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Timing wheel jerárquico: agenda elementos para un instante y los entrega al
+ * avanzar el reloj, con costo O(1) por elemento sin importar cuántos haya agendados.
+ * - El nivel 0 tiene una ranura por tick; cada nivel siguiente cubre wheelSize
+ *   ranuras del anterior (ej: 60 segundos, 60 minutos, 60 horas)
+ * - Al empezar un período de un nivel superior, su ranura se redistribuye en los
+ *   niveles inferiores
+ * - Un elemento ya agendado no se agenda dos veces hasta que venza
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<List<List<Entry<T>>>> levels;
+    private final Set<T> pending = new HashSet<>();
+    private final List<T> overdue = new ArrayList<>();
+    private long currentTick;
+
+    private record Entry<T>(T item, long tick) {}
+
+    public TimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levelCount < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levels = new ArrayList<>(levelCount);
+        for (int level = 0; level < levelCount; level++) {
+            List<List<Entry<T>>> slots = new ArrayList<>(wheelSize);
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots.add(new ArrayList<>());
+            }
+            levels.add(slots);
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Agenda el elemento para el instante indicado (epoch millis). Un instante ya
+     * pasado se entrega en el próximo avance.
+     * @return false si el instante queda más allá del horizonte o el elemento ya estaba agendado
+     */
+    public synchronized boolean schedule(T item, long deadlineMillis) {
+        if (pending.contains(item)) {
+            return false;
+        }
+        long tick = deadlineMillis / tickMillis;
+        if (tick <= currentTick) {
+            overdue.add(item);
+            pending.add(item);
+            return true;
+        }
+        if (!place(new Entry<>(item, tick))) {
+            return false;
+        }
+        pending.add(item);
+        return true;
+    }
+
+    /**
+     * Avanza el reloj hasta el instante indicado
+     * @return elementos vencidos desde el avance anterior
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>(overdue);
+        overdue.clear();
+
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Primero los niveles superiores: lo que baja de nivel puede vencer en este mismo tick
+            long span = spanOfLevel(levels.size() - 1);
+            for (int level = levels.size() - 1; level > 0; level--) {
+                if (currentTick % span == 0) {
+                    cascade(level, (int) ((currentTick / span) % wheelSize), expired);
+                }
+                span /= wheelSize;
+            }
+            List<Entry<T>> slot = levels.get(0).get((int) (currentTick % wheelSize));
+            for (Entry<T> entry : slot) {
+                expired.add(entry.item());
+            }
+            slot.clear();
+        }
+
+        expired.forEach(pending::remove);
+        return expired;
+    }
+
+    /**
+     * Instante más lejano (desde ahora) que se puede agendar
+     */
+    public long horizonMillis() {
+        return spanOfLevel(levels.size() - 1) * (wheelSize - 1) * tickMillis;
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    private void cascade(int level, int slotIndex, List<T> expired) {
+        List<Entry<T>> slot = levels.get(level).get(slotIndex);
+        List<Entry<T>> entries = new ArrayList<>(slot);
+        slot.clear();
+        for (Entry<T> entry : entries) {
+            if (entry.tick() <= currentTick) {
+                expired.add(entry.item());
+            } else {
+                place(entry);
+            }
+        }
+    }
+
+    // Nivel más bajo cuyo rango (wheelSize períodos desde el actual) alcanza al tick
+    private boolean place(Entry<T> entry) {
+        long span = 1;
+        for (List<List<Entry<T>>> slots : levels) {
+            long period = entry.tick() / span;
+            if (period - currentTick / span < wheelSize) {
+                slots.get((int) (period % wheelSize)).add(entry);
+                return true;
+            }
+            span *= wheelSize;
+        }
+        return false;
+    }
+
+    private long spanOfLevel(int level) {
+        long span = 1;
+        for (int i = 0; i < level; i++) {
+            span *= wheelSize;
+        }
+        return span;
+    }
+}
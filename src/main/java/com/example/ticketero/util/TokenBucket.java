@@ -0,0 +1,50 @@
+package com.example.ticketero.util;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket compartido entre hilos para respetar un límite de operaciones por segundo.
+ * Cada llamada reserva el siguiente token disponible y espera solo lo necesario;
+ * se admiten ráfagas de hasta capacity operaciones.
+ */
+public final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+
+    // Momento teórico en que se libera el próximo token
+    private long nextTokenNanos = System.nanoTime();
+
+    public TokenBucket(double tokensPerSecond, int capacity) {
+        if (tokensPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("Token bucket needs a positive rate and capacity");
+        }
+        this.nanosPerToken = (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond);
+        this.burstNanos = nanosPerToken * (capacity - 1);
+    }
+
+    /**
+     * Espera hasta obtener un token
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Detiene la entrega de tokens durante el tiempo indicado (ej: el servidor pidió esperar)
+     */
+    public synchronized void pauseFor(Duration duration) {
+        nextTokenNanos = Math.max(nextTokenNanos, System.nanoTime() + duration.toNanos() + burstNanos);
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        long tokenAt = Math.max(nextTokenNanos, now);
+        nextTokenNanos = tokenAt + nanosPerToken;
+        return tokenAt - burstNanos - now;
+    }
+}
@@ -0,0 +1,37 @@
+-- V4__create_ticket_number_counter.sql
+-- Numeración de tickets por sucursal, cola y día hábil
+
+CREATE TABLE ticket_number_counter (
+    id BIGSERIAL PRIMARY KEY,
+    branch_office VARCHAR(100) NOT NULL,
+    queue_type VARCHAR(20) NOT NULL,
+    business_date DATE NOT NULL,
+    last_number INTEGER NOT NULL DEFAULT 0,
+
+    CONSTRAINT uk_ticket_number_counter UNIQUE (branch_office, queue_type, business_date),
+    CONSTRAINT chk_last_number CHECK (last_number >= 0)
+);
+
+-- Día hábil del ticket (el número visible se reinicia cada día por sucursal)
+ALTER TABLE ticket ADD COLUMN business_date DATE;
+UPDATE ticket SET business_date = CAST(created_at AS DATE);
+ALTER TABLE ticket ALTER COLUMN business_date SET NOT NULL;
+
+-- La unicidad del número pasa de global a (sucursal, día hábil)
+ALTER TABLE ticket DROP CONSTRAINT ticket_numero_key;
+ALTER TABLE ticket
+    ADD CONSTRAINT uk_ticket_branch_day_numero
+    UNIQUE (branch_office, business_date, numero);
+CREATE INDEX idx_ticket_numero ON ticket(numero);
+
+-- Continuar la numeración existente para no repetir números ya emitidos
+INSERT INTO ticket_number_counter (branch_office, queue_type, business_date, last_number)
+SELECT branch_office, queue_type, business_date, MAX(CAST(SUBSTRING(numero FROM 2) AS INTEGER))
+FROM ticket
+WHERE SUBSTRING(numero FROM 2) ~ '^[0-9]+$'
+GROUP BY branch_office, queue_type, business_date;
+
+-- Comentarios
+COMMENT ON TABLE ticket_number_counter IS 'Último número de ticket reservado por sucursal, cola y día hábil';
+COMMENT ON COLUMN ticket_number_counter.last_number IS 'Último número reservado (se reservan bloques, puede haber saltos)';
+COMMENT ON COLUMN ticket.business_date IS 'Día hábil de la sucursal en que se emitió el ticket';
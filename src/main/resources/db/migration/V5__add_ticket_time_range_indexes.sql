@@ -0,0 +1,15 @@
+-- V5__add_ticket_time_range_indexes.sql
+-- Índices para consultas por período sobre created_at (rangos semiabiertos)
+
+-- Métricas del día: filtro por rango de created_at y agrupación por cola/estado.
+-- Reemplaza a idx_ticket_created_at (el índice compuesto también sirve para ORDER BY created_at DESC)
+CREATE INDEX idx_ticket_created_at_status ON ticket(created_at, status);
+CREATE INDEX idx_ticket_created_at_queue_status ON ticket(created_at, queue_type, status) INCLUDE (updated_at);
+DROP INDEX IF EXISTS idx_ticket_created_at;
+
+-- Tickets del día hábil de una sucursal
+CREATE INDEX idx_ticket_branch_business_date ON ticket(branch_office, business_date, status);
+
+-- Colas de espera en orden de llegada (reconstrucción del índice en memoria y cálculo de posiciones)
+CREATE INDEX idx_ticket_waiting_created_at ON ticket(branch_office, queue_type, created_at, id)
+    WHERE status IN ('EN_ESPERA', 'PROXIMO');
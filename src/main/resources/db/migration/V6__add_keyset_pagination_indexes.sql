@@ -0,0 +1,14 @@
+-- V6__add_keyset_pagination_indexes.sql
+-- Índices para la paginación por keyset (created_at, id) de los listados de la API
+
+-- Listado de tickets por estado
+CREATE INDEX idx_ticket_status_created_at_id ON ticket(status, created_at, id);
+DROP INDEX IF EXISTS idx_ticket_status;
+
+-- Listado de tickets activos por tipo de cola
+CREATE INDEX idx_ticket_queue_type_status_created_at_id ON ticket(queue_type, status, created_at, id);
+
+-- Listados de asesores (todos y por estado)
+CREATE INDEX idx_advisor_created_at_id ON advisor(created_at, id);
+CREATE INDEX idx_advisor_status_created_at_id ON advisor(status, created_at, id);
+DROP INDEX IF EXISTS idx_advisor_status;
@@ -0,0 +1,19 @@
+-- V7__add_mensaje_retry_scheduling.sql
+-- Reintentos con backoff exponencial y estado de mensajes con reintentos agotados (dead letter)
+
+ALTER TABLE mensaje ADD COLUMN next_attempt_at TIMESTAMP;
+
+-- Mensajes por enviar: el próximo intento es su fecha programada
+UPDATE mensaje SET next_attempt_at = fecha_programada
+WHERE estado_envio IN ('PENDIENTE', 'FALLIDO');
+
+-- Mensajes que ya agotaron los reintentos pasan a la cola de dead letter
+UPDATE mensaje SET estado_envio = 'AGOTADO', next_attempt_at = NULL
+WHERE estado_envio = 'FALLIDO' AND intentos >= 3;
+
+-- Solo las filas por enviar, ordenadas por próximo intento: el despacho lee un rango de filas vencidas
+CREATE INDEX idx_mensaje_next_attempt ON mensaje(next_attempt_at)
+    WHERE estado_envio IN ('PENDIENTE', 'FALLIDO');
+
+COMMENT ON COLUMN mensaje.estado_envio IS 'Estado: PENDIENTE, ENVIADO, FALLIDO, AGOTADO (reintentos agotados)';
+COMMENT ON COLUMN mensaje.next_attempt_at IS 'Próximo intento de envío (fecha programada o reintento con backoff)';
@@ -0,0 +1,4 @@
+-- V8__update_mensaje_estado_comment.sql
+-- Estado DESCARTADO para los mensajes de tickets cerrados o superados antes de enviarse
+
+COMMENT ON COLUMN mensaje.estado_envio IS 'Estado: PENDIENTE, ENVIADO, FALLIDO, AGOTADO (reintentos agotados), DESCARTADO (ticket cerrado o aviso superado)';
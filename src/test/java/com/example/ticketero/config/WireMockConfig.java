@@ -52,4 +52,28 @@ public class WireMockConfig {
                 .withStatus(500)
                 .withBody("{\"ok\":false,\"error_code\":500}")));
     }
-}
\ No newline at end of file
+
+    public static void simulateTelegramLatency(WireMockServer server, int delayMs) {
+        server.stubFor(post(urlPathMatching("/bot.*/sendMessage"))
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withFixedDelay(delayMs)
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"ok\":true,\"result\":{\"message_id\":12345}}")));
+    }
+
+    public static void simulateTelegramRateLimit(WireMockServer server, int retryAfterSeconds) {
+        server.stubFor(post(urlPathMatching("/bot.*/sendMessage"))
+            .willReturn(aResponse()
+                .withStatus(429)
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    {
+                        "ok": false,
+                        "error_code": 429,
+                        "description": "Too Many Requests: retry after %d",
+                        "parameters": {"retry_after": %d}
+                    }
+                    """.formatted(retryAfterSeconds, retryAfterSeconds))));
+    }
+}
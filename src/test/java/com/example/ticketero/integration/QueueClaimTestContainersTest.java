@@ -0,0 +1,151 @@
+package com.example.ticketero.integration;
+
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import com.example.ticketero.repository.AdvisorRepository;
+import com.example.ticketero.repository.TicketRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Reclamos con sentencias nativas (UPDATE ... RETURNING) sobre entidades que ya están
+ * en el contexto de persistencia de la transacción. Cada prueba corre en una
+ * transacción que se revierte al terminar.
+ *
+ * IMPORTANT: This test requires Docker to be running.
+ */
+@DisplayName("Queue claims with managed entities - TestContainers")
+class QueueClaimTestContainersTest extends TestContainersBaseTest {
+
+    @Autowired
+    private AdvisorRepository advisorRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("asesor ya cargado en la transacción → el reclamo debe retornarlo BUSY con su carga incrementada")
+    void claimNextAvailableAdvisor_asesorYaCargado_debeRetornarEstadoActual() {
+        inRollbackTransaction(() -> {
+            // Given: todos los asesores disponibles quedan cargados en el contexto
+            advisorRepository.saveAndFlush(advisor("claim.cargado@banco.com", 901));
+            Map<Long, Integer> cargaPrevia = advisorRepository.findByStatus(AdvisorStatus.AVAILABLE).stream()
+                .collect(Collectors.toMap(Advisor::getId, Advisor::getAssignedTicketsCount));
+
+            // When
+            Advisor reclamado = advisorRepository.claimNextAvailableAdvisor().orElseThrow();
+
+            // Then
+            assertThat(reclamado.getStatus()).isEqualTo(AdvisorStatus.BUSY);
+            assertThat(reclamado.getAssignedTicketsCount()).isEqualTo(cargaPrevia.get(reclamado.getId()) + 1);
+        });
+    }
+
+    @Test
+    @DisplayName("reclamo de tickets en espera → debe retornar los más antiguos de la cola hasta el límite")
+    void claimWaitingTickets_debeRetornarLosMasAntiguosDeLaCola() {
+        inRollbackTransaction(() -> {
+            // Given
+            Ticket primero = ticketRepository.saveAndFlush(ticket("Sucursal Reclamo"));
+            Ticket segundo = ticketRepository.saveAndFlush(ticket("Sucursal Reclamo"));
+            ticketRepository.saveAndFlush(ticket("Sucursal Reclamo"));
+            ticketRepository.saveAndFlush(ticket("Otra Sucursal"));
+
+            // When
+            List<Ticket> reclamados = ticketRepository.claimWaitingTickets("Sucursal Reclamo", QueueType.CAJA, 2);
+
+            // Then
+            assertThat(reclamados).containsExactly(primero, segundo);
+        });
+    }
+
+    @Test
+    @DisplayName("ticket ya cargado en la transacción → la promoción debe retornarlo PROXIMO")
+    void promoteProximoTickets_ticketYaCargado_debeRetornarEstadoActual() {
+        inRollbackTransaction(() -> {
+            // Given: primer ticket de su cola, cargado como al reconstruir el índice
+            Ticket cargado = ticketRepository.saveAndFlush(ticket("Sucursal Promoción"));
+            assertThat(cargado.getStatus()).isEqualTo(TicketStatus.EN_ESPERA);
+
+            // When
+            List<Ticket> promovidos = ticketRepository.promoteProximoTickets(3);
+
+            // Then
+            assertThat(promovidos).contains(cargado);
+            assertThat(cargado.getStatus()).isEqualTo(TicketStatus.PROXIMO);
+            assertThat(TicketStatusChangedEvent.of(cargado, TicketStatus.EN_ESPERA).newStatus())
+                .isEqualTo(TicketStatus.PROXIMO);
+        });
+    }
+
+    @Test
+    @DisplayName("recálculo con posiciones persistidas → debe retornar solo los tickets promovidos")
+    void updateQueuePositions_debeRetornarSoloPromovidos() {
+        inRollbackTransaction(() -> {
+            // Given: el primero ya es PROXIMO, el segundo está en espera y el cuarto queda fuera
+            Ticket proximo = ticketRepository.saveAndFlush(ticket("Sucursal Posiciones"));
+            proximo.setStatus(TicketStatus.PROXIMO);
+            Ticket enEspera = ticketRepository.saveAndFlush(ticket("Sucursal Posiciones"));
+            ticketRepository.saveAndFlush(ticket("Sucursal Posiciones"));
+            Ticket cuarto = ticketRepository.saveAndFlush(ticket("Sucursal Posiciones"));
+
+            // When
+            List<Ticket> promovidos = ticketRepository.updateQueuePositions(2);
+            entityManager.refresh(cuarto);
+
+            // Then
+            assertThat(promovidos).containsExactly(enEspera);
+            assertThat(enEspera.getStatus()).isEqualTo(TicketStatus.PROXIMO);
+            assertThat(cuarto.getStatus()).isEqualTo(TicketStatus.EN_ESPERA);
+            assertThat(cuarto.getPositionInQueue()).isEqualTo(4);
+        });
+    }
+
+    private void inRollbackTransaction(Runnable test) {
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            test.run();
+        });
+    }
+
+    private static Ticket ticket(String branchOffice) {
+        return Ticket.builder()
+            .numero("C01")
+            .nationalId("12345678")
+            .branchOffice(branchOffice)
+            .queueType(QueueType.CAJA)
+            .status(TicketStatus.EN_ESPERA)
+            .positionInQueue(1)
+            .estimatedWaitMinutes(0)
+            .build();
+    }
+
+    private static Advisor advisor(String email, int moduleNumber) {
+        return Advisor.builder()
+            .name("Asesor " + moduleNumber)
+            .email(email)
+            .moduleNumber(moduleNumber)
+            .status(AdvisorStatus.AVAILABLE)
+            .assignedTicketsCount(0)
+            .build();
+    }
+}
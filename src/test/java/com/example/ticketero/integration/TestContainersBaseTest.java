@@ -57,9 +57,9 @@ public abstract class TestContainersBaseTest {
         registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
         registry.add("spring.flyway.enabled", () -> "false");
-        registry.add("telegram.bot.token", () -> "test-token");
-        registry.add("telegram.bot.chat-id", () -> "123456789");
-        registry.add("telegram.api.url", () -> "http://localhost:8089");
+        registry.add("telegram.bot-token", () -> "test-token");
+        registry.add("telegram.chat-id", () -> "123456789");
+        registry.add("telegram.api-url", () -> "http://localhost:8089/bot");
         
         System.out.println("✅ Using TestContainers PostgreSQL for E2E tests");
     }
@@ -68,6 +68,19 @@ class ValidationITest extends BaseIntegrationTest {
             .statusCode(anyOf(equalTo(400), equalTo(201))); // API might not enforce strict length
     }
 
+    @Test
+    @DisplayName("Should reject malformed page cursor")
+    void shouldRejectMalformedPageCursor() {
+        given()
+            .queryParam("status", "EN_ESPERA")
+            .queryParam("cursor", "no-es-cursor")
+        .when()
+            .get("/api/tickets")
+        .then()
+            .statusCode(400)
+            .body("message", containsString("Invalid page cursor"));
+    }
+
     @Test
     @DisplayName("Should reject request with invalid queueType")
     void shouldRejectInvalidQueueType() {
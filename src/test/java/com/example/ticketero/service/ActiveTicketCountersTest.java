@@ -0,0 +1,91 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketCreatedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import com.example.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ActiveTicketCounters - Unit Tests")
+class ActiveTicketCountersTest {
+
+    private static final String SUCURSAL = "Sucursal Centro";
+    private static final LocalDateTime AHORA = LocalDateTime.of(2024, 3, 15, 10, 0);
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @InjectMocks
+    private ActiveTicketCounters activeTicketCounters;
+
+    @Test
+    @DisplayName("creación, asignación y cierre de tickets → debe mantener el conteo de la fila por cola")
+    void eventos_debenMantenerConteoPorCola() {
+        // Given
+        activeTicketCounters.onTicketCreated(new TicketCreatedEvent(1L, "C01", SUCURSAL, QueueType.CAJA, AHORA));
+        activeTicketCounters.onTicketCreated(new TicketCreatedEvent(2L, "C02", SUCURSAL, QueueType.CAJA, AHORA));
+        activeTicketCounters.onTicketCreated(new TicketCreatedEvent(3L, "C03", SUCURSAL, QueueType.EMPRESAS, AHORA));
+
+        // When: asignar a un asesor también saca el ticket de la fila
+        activeTicketCounters.onTicketStatusChanged(new TicketStatusChangedEvent(
+            1L, "C01", SUCURSAL, QueueType.CAJA, TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO, 1, AHORA));
+        activeTicketCounters.onTicketStatusChanged(new TicketStatusChangedEvent(
+            2L, "C02", SUCURSAL, QueueType.CAJA, TicketStatus.EN_ESPERA, TicketStatus.CANCELADO, null, AHORA));
+
+        // Then
+        assertThat(activeTicketCounters.count(SUCURSAL, QueueType.CAJA)).isZero();
+        assertThat(activeTicketCounters.count(SUCURSAL, QueueType.EMPRESAS)).isEqualTo(1);
+        assertThat(activeTicketCounters.count("Sucursal Norte", QueueType.CAJA)).isZero();
+    }
+
+    @Test
+    @DisplayName("promoción a PROXIMO y reencolado → no deben alterar el conteo de la fila")
+    void eventos_dentroDeLaFila_noDebenAlterarConteo() {
+        // Given
+        activeTicketCounters.onTicketCreated(new TicketCreatedEvent(1L, "C01", SUCURSAL, QueueType.CAJA, AHORA));
+
+        // When
+        activeTicketCounters.onTicketStatusChanged(new TicketStatusChangedEvent(
+            1L, "C01", SUCURSAL, QueueType.CAJA, TicketStatus.EN_ESPERA, TicketStatus.PROXIMO, null, AHORA));
+        activeTicketCounters.onTicketStatusChanged(new TicketStatusChangedEvent(
+            1L, "C01", SUCURSAL, QueueType.CAJA, TicketStatus.PROXIMO, TicketStatus.ATENDIENDO, 1, AHORA));
+        activeTicketCounters.onTicketStatusChanged(new TicketStatusChangedEvent(
+            1L, "C01", SUCURSAL, QueueType.CAJA, TicketStatus.ATENDIENDO, TicketStatus.EN_ESPERA, null, AHORA));
+
+        // Then
+        assertThat(activeTicketCounters.count(SUCURSAL, QueueType.CAJA)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("reconcile() → debe reemplazar los contadores con los valores de la base de datos")
+    void reconcile_debeReemplazarContadores() {
+        // Given
+        TicketRepository.QueueCount cajaCentro = mock(TicketRepository.QueueCount.class);
+        when(cajaCentro.getBranchOffice()).thenReturn(SUCURSAL);
+        when(cajaCentro.getQueueType()).thenReturn(QueueType.CAJA);
+        when(cajaCentro.getTotal()).thenReturn(7L);
+        when(ticketRepository.countByBranchOfficeAndQueueType(TicketStatus.getWaitingStatuses()))
+            .thenReturn(List.of(cajaCentro));
+        activeTicketCounters.onTicketCreated(new TicketCreatedEvent(1L, "C01", SUCURSAL, QueueType.EMPRESAS, AHORA));
+
+        // When
+        activeTicketCounters.reconcile();
+
+        // Then
+        assertThat(activeTicketCounters.count(SUCURSAL, QueueType.CAJA)).isEqualTo(7);
+        assertThat(activeTicketCounters.count(SUCURSAL, QueueType.EMPRESAS)).isZero();
+    }
+}
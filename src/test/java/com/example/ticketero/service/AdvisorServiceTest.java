@@ -1,9 +1,12 @@
 package com.example.ticketero.service;
 
 import com.example.ticketero.model.dto.response.AdvisorResponse;
+import com.example.ticketero.model.dto.response.PageResponse;
 import com.example.ticketero.model.entity.Advisor;
 import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.event.AdvisorStatusChangedEvent;
 import com.example.ticketero.repository.AdvisorRepository;
+import com.example.ticketero.util.PageCursor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -11,7 +14,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +34,9 @@ class AdvisorServiceTest {
     @Mock
     private AdvisorRepository advisorRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AdvisorService advisorService;
 
@@ -81,15 +91,79 @@ class AdvisorServiceTest {
                 advisorAvailable().build(),
                 advisorAvailable().build()
             );
-            when(advisorRepository.findByStatus(AdvisorStatus.AVAILABLE))
+            when(advisorRepository.findByStatusAfter(
+                eq(AdvisorStatus.AVAILABLE), any(), any(), any(Pageable.class)))
                 .thenReturn(advisors);
 
             // When
-            List<AdvisorResponse> responses = advisorService.findByStatus(AdvisorStatus.AVAILABLE);
+            PageResponse<AdvisorResponse> page = advisorService.findByStatus(AdvisorStatus.AVAILABLE, null, 50);
 
             // Then
-            assertThat(responses).hasSize(2);
-            assertThat(responses).allMatch(r -> r.status() == AdvisorStatus.AVAILABLE);
+            assertThat(page.items()).hasSize(2);
+            assertThat(page.items()).allMatch(r -> r.status() == AdvisorStatus.AVAILABLE);
+            assertThat(page.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("más filas que el límite → debe cortar la página y entregar cursor de la última")
+        void findByStatus_masFilasQueLimite_debeEntregarCursor() {
+            // Given
+            LocalDateTime creado = LocalDateTime.of(2024, 3, 15, 9, 0);
+            List<Advisor> advisors = List.of(
+                advisorAvailable().id(1L).createdAt(creado).build(),
+                advisorAvailable().id(2L).createdAt(creado).build(),
+                advisorAvailable().id(3L).createdAt(creado).build()
+            );
+            when(advisorRepository.findByStatusAfter(
+                eq(AdvisorStatus.AVAILABLE), any(), any(), eq(PageRequest.ofSize(3))))
+                .thenReturn(advisors);
+
+            // When
+            PageResponse<AdvisorResponse> page = advisorService.findByStatus(AdvisorStatus.AVAILABLE, null, 2);
+
+            // Then
+            assertThat(page.items()).extracting(AdvisorResponse::id).containsExactly(1L, 2L);
+            assertThat(PageCursor.decode(page.nextCursor())).isEqualTo(new PageCursor(creado, 2L));
+        }
+
+        @Test
+        @DisplayName("con cursor → debe continuar desde la posición del cursor")
+        void findByStatus_conCursor_debeContinuarDesdeCursor() {
+            // Given
+            PageCursor cursor = new PageCursor(LocalDateTime.of(2024, 3, 15, 9, 0), 7L);
+            when(advisorRepository.findByStatusAfter(
+                eq(AdvisorStatus.BUSY), eq(cursor.createdAt()), eq(7L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+            // When
+            PageResponse<AdvisorResponse> page = advisorService.findByStatus(AdvisorStatus.BUSY, cursor.encode(), 50);
+
+            // Then
+            assertThat(page.items()).isEmpty();
+            assertThat(page.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("límite sobre el máximo → debe acotarse al tamaño máximo de página")
+        void findByStatus_limiteSobreMaximo_debeAcotarse() {
+            // Given
+            when(advisorRepository.findByStatusAfter(any(), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+            // When
+            advisorService.findByStatus(AdvisorStatus.AVAILABLE, null, 10_000);
+
+            // Then
+            verify(advisorRepository).findByStatusAfter(
+                eq(AdvisorStatus.AVAILABLE), any(), any(), eq(PageRequest.ofSize(201)));
+        }
+
+        @Test
+        @DisplayName("cursor inválido → debe lanzar IllegalArgumentException")
+        void findByStatus_cursorInvalido_debeLanzarExcepcion() {
+            // When + Then
+            assertThatThrownBy(() -> advisorService.findByStatus(AdvisorStatus.AVAILABLE, "no-es-cursor", 50))
+                .isInstanceOf(IllegalArgumentException.class);
         }
     }
 
@@ -114,6 +188,8 @@ class AdvisorServiceTest {
             // Then
             assertThat(advisor.getStatus()).isEqualTo(AdvisorStatus.BUSY);
             assertThat(response.status()).isEqualTo(AdvisorStatus.BUSY);
+            verify(eventPublisher).publishEvent(
+                new AdvisorStatusChangedEvent(1L, AdvisorStatus.AVAILABLE, AdvisorStatus.BUSY));
         }
 
         @Test
@@ -138,33 +214,29 @@ class AdvisorServiceTest {
     class IncrementTicketsCount {
 
         @Test
-        @DisplayName("advisor AVAILABLE → debe incrementar y cambiar a BUSY")
-        void increment_advisorAvailable_debeIncrementarYCambiarABusy() {
+        @DisplayName("advisor existente → debe incrementar con una sola sentencia atómica")
+        void increment_advisorExistente_debeIncrementarAtomicamente() {
             // Given
-            Advisor advisor = advisorAvailable().assignedTicketsCount(0).build();
-            when(advisorRepository.findById(1L)).thenReturn(Optional.of(advisor));
+            when(advisorRepository.incrementAssignedTicketsCount(1L)).thenReturn(1);
 
             // When
             advisorService.incrementAssignedTicketsCount(1L);
 
             // Then
-            assertThat(advisor.getAssignedTicketsCount()).isEqualTo(1);
-            assertThat(advisor.getStatus()).isEqualTo(AdvisorStatus.BUSY);
+            verify(advisorRepository).incrementAssignedTicketsCount(1L);
+            verify(advisorRepository, never()).findById(any());
         }
 
         @Test
-        @DisplayName("advisor ya BUSY → debe solo incrementar contador")
-        void increment_advisorBusy_debeSoloIncrementar() {
+        @DisplayName("advisor inexistente → debe lanzar RuntimeException")
+        void increment_advisorInexistente_debeLanzarExcepcion() {
             // Given
-            Advisor advisor = advisorBusy().assignedTicketsCount(2).build();
-            when(advisorRepository.findById(1L)).thenReturn(Optional.of(advisor));
-
-            // When
-            advisorService.incrementAssignedTicketsCount(1L);
+            when(advisorRepository.incrementAssignedTicketsCount(999L)).thenReturn(0);
 
-            // Then
-            assertThat(advisor.getAssignedTicketsCount()).isEqualTo(3);
-            assertThat(advisor.getStatus()).isEqualTo(AdvisorStatus.BUSY);
+            // When + Then
+            assertThatThrownBy(() -> advisorService.incrementAssignedTicketsCount(999L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("999");
         }
     }
 
@@ -173,48 +245,28 @@ class AdvisorServiceTest {
     class DecrementTicketsCount {
 
         @Test
-        @DisplayName("contador > 0 → debe decrementar")
-        void decrement_contadorPositivo_debeDecrementar() {
-            // Given
-            Advisor advisor = advisorBusy().assignedTicketsCount(2).build();
-            when(advisorRepository.findById(1L)).thenReturn(Optional.of(advisor));
-
-            // When
-            advisorService.decrementAssignedTicketsCount(1L);
-
-            // Then
-            assertThat(advisor.getAssignedTicketsCount()).isEqualTo(1);
-            assertThat(advisor.getStatus()).isEqualTo(AdvisorStatus.BUSY);
-        }
-
-        @Test
-        @DisplayName("contador llega a 0 y status BUSY → debe cambiar a AVAILABLE")
-        void decrement_contadorACeroYBusy_debeCambiarAAvailable() {
+        @DisplayName("contador > 0 → debe decrementar con una sola sentencia atómica")
+        void decrement_contadorPositivo_debeDecrementarAtomicamente() {
             // Given
-            Advisor advisor = advisorBusy().assignedTicketsCount(1).build();
-            when(advisorRepository.findById(1L)).thenReturn(Optional.of(advisor));
+            when(advisorRepository.decrementAssignedTicketsCount(1L)).thenReturn(1);
 
             // When
             advisorService.decrementAssignedTicketsCount(1L);
 
             // Then
-            assertThat(advisor.getAssignedTicketsCount()).isEqualTo(0);
-            assertThat(advisor.getStatus()).isEqualTo(AdvisorStatus.AVAILABLE);
+            verify(advisorRepository).decrementAssignedTicketsCount(1L);
+            verify(advisorRepository, never()).findById(any());
         }
 
         @Test
-        @DisplayName("contador ya en 0 → no debe cambiar")
-        void decrement_contadorEnCero_noDebeCambiar() {
+        @DisplayName("contador ya en 0 → no debe fallar")
+        void decrement_contadorEnCero_noDebeFallar() {
             // Given
-            Advisor advisor = advisorAvailable().assignedTicketsCount(0).build();
-            when(advisorRepository.findById(1L)).thenReturn(Optional.of(advisor));
-
-            // When
-            advisorService.decrementAssignedTicketsCount(1L);
+            when(advisorRepository.decrementAssignedTicketsCount(1L)).thenReturn(0);
 
-            // Then
-            assertThat(advisor.getAssignedTicketsCount()).isEqualTo(0);
-            assertThat(advisor.getStatus()).isEqualTo(AdvisorStatus.AVAILABLE);
+            // When + Then
+            assertThatCode(() -> advisorService.decrementAssignedTicketsCount(1L))
+                .doesNotThrowAnyException();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.example.ticketero.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("BusinessCalendar - Unit Tests")
+class BusinessCalendarTest {
+
+    // Servidor en UTC; 2024-03-15 02:00 UTC = 2024-03-14 23:00 en Santiago (UTC-3)
+    private final BusinessCalendar calendar =
+        new BusinessCalendar(Clock.fixed(Instant.parse("2024-03-15T02:00:00Z"), ZoneOffset.UTC));
+
+    @Test
+    @DisplayName("today() → debe usar la zona del negocio y no la del servidor")
+    void today_debeUsarZonaDelNegocio() {
+        // When + Then
+        assertThat(calendar.today()).isEqualTo(LocalDate.of(2024, 3, 14));
+    }
+
+    @Test
+    @DisplayName("dayRange() → debe retornar límites semiabiertos en hora del servidor")
+    void dayRange_debeRetornarLimitesEnHoraDelServidor() {
+        // When
+        BusinessCalendar.DayRange range = calendar.dayRange(LocalDate.of(2024, 3, 14));
+
+        // Then
+        assertThat(range.start()).isEqualTo(LocalDateTime.of(2024, 3, 14, 3, 0));
+        assertThat(range.end()).isEqualTo(LocalDateTime.of(2024, 3, 15, 3, 0));
+        assertThat(range.contains(range.start())).isTrue();
+        assertThat(range.contains(range.end())).isFalse();
+    }
+
+    @Test
+    @DisplayName("sucursal con zona propia → debe usar su zona")
+    void dayRange_sucursalConZonaPropia_debeUsarSuZona() {
+        // Given
+        calendar.setBranchZones(Map.of("Sucursal Isla de Pascua", ZoneId.of("Pacific/Easter")));
+
+        // When
+        BusinessCalendar.DayRange range = calendar.dayRange("Sucursal Isla de Pascua", LocalDate.of(2024, 3, 14));
+
+        // Then
+        assertThat(calendar.today("Sucursal Isla de Pascua")).isEqualTo(LocalDate.of(2024, 3, 14));
+        assertThat(range.start()).isEqualTo(LocalDateTime.of(2024, 3, 14, 5, 0));
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.model.event.TicketCreatedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import com.example.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardMetricsStore - Unit Tests")
+class DashboardMetricsStoreTest {
+
+    private static final String SUCURSAL = "Sucursal Centro";
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private AdvisorService advisorService;
+
+    @Spy
+    private BusinessCalendar businessCalendar = new BusinessCalendar();
+
+    @InjectMocks
+    private DashboardMetricsStore metricsStore;
+
+    private static TicketRepository.QueueStatusCount count(String queueType, String status,
+                                                           long total, double waitMinutesSum) {
+        return new TicketRepository.QueueStatusCount() {
+            @Override
+            public String getQueueType() {
+                return queueType;
+            }
+
+            @Override
+            public String getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+
+            @Override
+            public double getWaitMinutesSum() {
+                return waitMinutesSum;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("transiciones de tickets de hoy → debe actualizar conteos y espera promedio")
+    void transiciones_debenActualizarMetricas() {
+        // Given
+        LocalDateTime haceDiezMinutos = LocalDateTime.now().minusMinutes(10);
+        LocalDateTime inicioDelDia = businessCalendar.dayRange(businessCalendar.today()).start();
+        LocalDateTime creado = haceDiezMinutos.isAfter(inicioDelDia) ? haceDiezMinutos : inicioDelDia;
+        metricsStore.onTicketCreated(new TicketCreatedEvent(1L, "C01", SUCURSAL, QueueType.CAJA, creado));
+        metricsStore.onTicketCreated(new TicketCreatedEvent(2L, "C02", SUCURSAL, QueueType.EMPRESAS, creado));
+
+        // When
+        metricsStore.onTicketStatusChanged(new TicketStatusChangedEvent(
+            1L, "C01", SUCURSAL, QueueType.CAJA, TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO, null, creado));
+        metricsStore.onTicketStatusChanged(new TicketStatusChangedEvent(
+            1L, "C01", SUCURSAL, QueueType.CAJA, TicketStatus.ATENDIENDO, TicketStatus.COMPLETADO, null, creado));
+
+        // Then
+        DashboardMetricsStore.Snapshot snapshot = metricsStore.snapshot();
+        assertThat(snapshot.totalTickets()).isEqualTo(2);
+        assertThat(snapshot.ticketsByStatus())
+            .containsEntry(TicketStatus.EN_ESPERA, 1)
+            .containsEntry(TicketStatus.ATENDIENDO, 0)
+            .containsEntry(TicketStatus.COMPLETADO, 1);
+        assertThat(snapshot.ticketsByQueueType())
+            .containsEntry(QueueType.CAJA, 1)
+            .containsEntry(QueueType.EMPRESAS, 1);
+        assertThat(snapshot.averageWaitMinutes()).isGreaterThanOrEqualTo(0.0).isLessThan(11.0);
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    @DisplayName("ticket creado otro día → no debe afectar las métricas de hoy")
+    void transicion_ticketDeOtroDia_debeIgnorarse() {
+        // Given
+        LocalDateTime ayer = LocalDateTime.now().minusDays(1);
+
+        // When
+        metricsStore.onTicketStatusChanged(new TicketStatusChangedEvent(
+            1L, "C01", SUCURSAL, QueueType.CAJA, TicketStatus.EN_ESPERA, TicketStatus.CANCELADO, null, ayer));
+
+        // Then
+        assertThat(metricsStore.snapshot().totalTickets()).isZero();
+    }
+
+    @Test
+    @DisplayName("reconcile() → debe reemplazar las métricas con la consulta agregada")
+    void reconcile_debeReemplazarMetricas() {
+        // Given
+        metricsStore.onTicketCreated(new TicketCreatedEvent(1L, "C01", SUCURSAL, QueueType.GERENCIA, LocalDateTime.now()));
+        when(ticketRepository.countByQueueTypeAndStatusBetween(any(), any())).thenReturn(List.of(
+            count("CAJA", "EN_ESPERA", 10, 0),
+            count("CAJA", "COMPLETADO", 40, 400),
+            count("EMPRESAS", "COMPLETADO", 10, 100)
+        ));
+
+        // When
+        metricsStore.reconcile();
+
+        // Then
+        DashboardMetricsStore.Snapshot snapshot = metricsStore.snapshot();
+        assertThat(snapshot.totalTickets()).isEqualTo(60);
+        assertThat(snapshot.ticketsByQueueType()).containsEntry(QueueType.GERENCIA, 0);
+        assertThat(snapshot.ticketsByStatus()).containsEntry(TicketStatus.COMPLETADO, 50);
+        assertThat(snapshot.averageWaitMinutes()).isEqualTo(10.0);
+    }
+
+    @Test
+    @DisplayName("advisors() dentro del TTL → debe reutilizar la lista hasta un cambio de estado")
+    void advisors_dentroDelTtl_debeReutilizarHastaCambioDeEstado() {
+        // Given
+        when(advisorService.findAll()).thenReturn(List.of());
+
+        // When
+        metricsStore.advisors();
+        metricsStore.advisors();
+        metricsStore.onAdvisorStatusChanged(new AdvisorStatusChangedEvent(1L, AdvisorStatus.BUSY, AdvisorStatus.AVAILABLE));
+        metricsStore.advisors();
+
+        // Then
+        verify(advisorService, times(2)).findAll();
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Mensaje;
+import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.MessageScheduledEvent;
+import com.example.ticketero.repository.MensajeRepository;
+import com.example.ticketero.repository.MensajeRepository.DueMessage;
+import com.example.ticketero.repository.MensajeRepositoryCustom.DispatchResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MessageDispatcher - Unit Tests")
+class MessageDispatcherTest {
+
+    @Mock
+    private MensajeRepository mensajeRepository;
+
+    @Mock
+    private TelegramSender telegramSender;
+
+    @Spy
+    private MessageTemplateRenderer templateRenderer = new MessageTemplateRenderer("es");
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private MessageDispatcher messageDispatcher;
+
+    @Test
+    @DisplayName("sin mensajes vencidos → no debe enviar nada")
+    void dispatch_sinMensajes_noDebeEnviar() {
+        // Given
+        when(mensajeRepository.claimDueMessages(any(), any(), eq(100))).thenReturn(List.of());
+
+        // When
+        int dispatched = messageDispatcher.dispatchDueMessages();
+
+        // Then
+        assertThat(dispatched).isZero();
+        verifyNoInteractions(telegramSender);
+    }
+
+    @Test
+    @DisplayName("lote enviado → debe marcar todos como ENVIADO con su ID de Telegram")
+    void dispatch_loteEnviado_debeMarcarEnviados() {
+        // Given
+        when(mensajeRepository.claimDueMessages(any(), any(), anyInt())).thenReturn(List.of(mensaje(1L), mensaje(2L)));
+        when(telegramSender.send(any()))
+                .thenReturn(CompletableFuture.completedFuture("tg-1"), CompletableFuture.completedFuture("tg-2"));
+
+        // When
+        int dispatched = messageDispatcher.dispatchDueMessages();
+
+        // Then
+        assertThat(dispatched).isEqualTo(2);
+        List<DispatchResult> results = savedResults();
+        assertThat(results).extracting(DispatchResult::estadoEnvio)
+                .containsOnly(Mensaje.EstadoEnvio.ENVIADO);
+        assertThat(results).extracting(DispatchResult::telegramMessageId).containsExactly("tg-1", "tg-2");
+        assertThat(results.get(0).fechaEnvio()).isNotNull();
+        verify(mensajeRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("un envío falla → solo ese mensaje debe quedar FALLIDO con un intento más")
+    void dispatch_envioFalla_debeMarcarSoloEseFallido() {
+        // Given
+        when(mensajeRepository.claimDueMessages(any(), any(), anyInt())).thenReturn(List.of(mensaje(1L), mensaje(2L)));
+        when(telegramSender.send(any())).thenReturn(
+                CompletableFuture.completedFuture("tg-1"),
+                CompletableFuture.failedFuture(new IllegalStateException("Telegram caído")));
+
+        // When
+        messageDispatcher.dispatchDueMessages();
+
+        // Then
+        List<DispatchResult> results = savedResults();
+        DispatchResult enviado = results.get(0);
+        DispatchResult fallido = results.get(1);
+        assertThat(enviado.estadoEnvio()).isEqualTo(Mensaje.EstadoEnvio.ENVIADO);
+        assertThat(enviado.nextAttemptAt()).isNull();
+        assertThat(fallido.id()).isEqualTo(2L);
+        assertThat(fallido.estadoEnvio()).isEqualTo(Mensaje.EstadoEnvio.FALLIDO);
+        assertThat(fallido.intentos()).isEqualTo(1);
+        assertThat(fallido.telegramMessageId()).isNull();
+    }
+
+    @Test
+    @DisplayName("fallo con reintentos disponibles → debe programar el próximo intento con backoff")
+    void dispatch_falloConReintentos_debeProgramarProximoIntento() {
+        // Given
+        when(mensajeRepository.claimDueMessages(any(), any(), anyInt())).thenReturn(List.of(mensaje(1L, 1)));
+        when(telegramSender.send(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Telegram caído")));
+        LocalDateTime antes = LocalDateTime.now();
+
+        // When
+        messageDispatcher.dispatchDueMessages();
+
+        // Then: segundo intento fallido → entre 30 y 60 segundos (base 30 s * 2, con jitter)
+        DispatchResult fallido = savedResults().get(0);
+        assertThat(fallido.estadoEnvio()).isEqualTo(Mensaje.EstadoEnvio.FALLIDO);
+        assertThat(fallido.intentos()).isEqualTo(2);
+        assertThat(fallido.nextAttemptAt())
+                .isAfterOrEqualTo(antes.plusSeconds(30))
+                .isBefore(LocalDateTime.now().plusSeconds(61));
+        verify(eventPublisher).publishEvent(new MessageScheduledEvent(1L, fallido.nextAttemptAt()));
+    }
+
+    @Test
+    @DisplayName("último intento fallido → debe pasar a dead letter (AGOTADO) sin próximo intento")
+    void dispatch_ultimoIntentoFallido_debePasarADeadLetter() {
+        // Given
+        when(mensajeRepository.claimDueMessages(any(), any(), anyInt())).thenReturn(List.of(mensaje(1L, 2)));
+        when(telegramSender.send(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Telegram caído")));
+
+        // When
+        messageDispatcher.dispatchDueMessages();
+
+        // Then
+        DispatchResult fallido = savedResults().get(0);
+        assertThat(fallido.estadoEnvio()).isEqualTo(Mensaje.EstadoEnvio.AGOTADO);
+        assertThat(fallido.intentos()).isEqualTo(3);
+        assertThat(fallido.nextAttemptAt()).isNull();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("retryDelayMs() → debe crecer exponencialmente con jitter y respetar el máximo")
+    void retryDelay_debeCrecerExponencialmenteConJitter() {
+        // Given
+        ReflectionTestUtils.setField(messageDispatcher, "retryBaseDelayMs", 1_000L);
+        ReflectionTestUtils.setField(messageDispatcher, "retryMaxDelayMs", 10_000L);
+
+        // When + Then
+        for (int i = 0; i < 100; i++) {
+            assertThat(messageDispatcher.retryDelayMs(1)).isBetween(500L, 1_000L);
+            assertThat(messageDispatcher.retryDelayMs(3)).isBetween(2_000L, 4_000L);
+            assertThat(messageDispatcher.retryDelayMs(10)).isBetween(5_000L, 10_000L);
+            assertThat(messageDispatcher.retryDelayMs(200)).isBetween(5_000L, 10_000L);
+        }
+    }
+
+    @Test
+    @DisplayName("envío que no termina a tiempo → debe marcarse FALLIDO sin bloquear el lote")
+    void dispatch_envioSinRespuesta_debeMarcarFallidoAlVencerTimeout() {
+        // Given
+        ReflectionTestUtils.setField(messageDispatcher, "sendTimeoutMs", 50L);
+        CompletableFuture<String> sinRespuesta = new CompletableFuture<>();
+        when(mensajeRepository.claimDueMessages(any(), any(), anyInt())).thenReturn(List.of(mensaje(1L)));
+        when(telegramSender.send(any())).thenReturn(sinRespuesta);
+
+        // When
+        messageDispatcher.dispatchDueMessages();
+
+        // Then
+        assertThat(savedResults().get(0).estadoEnvio()).isEqualTo(Mensaje.EstadoEnvio.FALLIDO);
+        assertThat(sinRespuesta).isCancelled();
+    }
+
+    @Test
+    @DisplayName("reclamo → debe reservar los mensajes más allá de la espera máxima del lote")
+    void dispatch_reclamo_debeReservarMasAllaDelTimeout() {
+        // Given
+        when(mensajeRepository.claimDueMessages(any(), any(), anyInt())).thenReturn(List.of());
+
+        // When
+        messageDispatcher.dispatchDueMessages();
+
+        // Then: plazo del reclamo = 2 * send-timeout-ms (30 s)
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> leaseUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(mensajeRepository).claimDueMessages(now.capture(), leaseUntil.capture(), eq(100));
+        assertThat(leaseUntil.getValue()).isEqualTo(now.getValue().plusSeconds(60));
+    }
+
+    @Test
+    @DisplayName("debe enviar el contenido de la plantilla sin cargar el ticket")
+    void dispatch_debeEnviarContenidoDeLaPlantilla() {
+        // Given
+        when(mensajeRepository.claimDueMessages(any(), any(), anyInt())).thenReturn(List.of(mensaje(1L)));
+        when(telegramSender.send(any())).thenReturn(CompletableFuture.completedFuture("tg-1"));
+
+        // When
+        messageDispatcher.dispatchDueMessages();
+
+        // Then
+        verify(telegramSender).send(argThat(text ->
+                text.contains("Ticket creado: C01") && text.contains("Cola: Caja")));
+        verify(mensajeRepository, never()).findById(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    @DisplayName("ticket cancelado → el mensaje debe descartarse sin enviarse")
+    void dispatch_ticketCancelado_debeDescartarSinEnviar() {
+        // Given
+        DueMessage cancelado = mensaje(1L, MessageTemplate.TOTEM_TICKET_CREADO, TicketStatus.CANCELADO);
+        when(mensajeRepository.claimDueMessages(any(), any(), anyInt())).thenReturn(List.of(cancelado));
+
+        // When
+        int dispatched = messageDispatcher.dispatchDueMessages();
+
+        // Then
+        assertThat(dispatched).isEqualTo(1);
+        assertThat(savedResults().get(0).estadoEnvio()).isEqualTo(Mensaje.EstadoEnvio.DESCARTADO);
+        verifyNoInteractions(telegramSender);
+    }
+
+    @Test
+    @DisplayName("aviso de PROXIMO con el ticket ya en atención → solo debe enviarse ES_TU_TURNO")
+    void dispatch_proximoSuperado_debeDescartarseYEnviarEsTuTurno() {
+        // Given
+        DueMessage proximo = mensaje(1L, MessageTemplate.TOTEM_PROXIMO_TURNO, TicketStatus.ATENDIENDO);
+        DueMessage esTuTurno = mensaje(2L, MessageTemplate.TOTEM_ES_TU_TURNO, TicketStatus.ATENDIENDO);
+        when(mensajeRepository.claimDueMessages(any(), any(), anyInt())).thenReturn(List.of(proximo, esTuTurno));
+        when(telegramSender.send(any())).thenReturn(CompletableFuture.completedFuture("tg-2"));
+
+        // When
+        messageDispatcher.dispatchDueMessages();
+
+        // Then
+        verify(telegramSender).send(argThat(text -> text.contains("ES TU TURNO")));
+        assertThat(savedResults())
+                .extracting(DispatchResult::id, DispatchResult::estadoEnvio)
+                .containsExactlyInAnyOrder(
+                        tuple(1L, Mensaje.EstadoEnvio.DESCARTADO),
+                        tuple(2L, Mensaje.EstadoEnvio.ENVIADO));
+    }
+
+    private List<DispatchResult> savedResults() {
+        ArgumentCaptor<List<DispatchResult>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mensajeRepository).saveDispatchResults(captor.capture());
+        return captor.getValue();
+    }
+
+    private static DueMessage mensaje(Long id) {
+        return mensaje(id, 0);
+    }
+
+    private static DueMessage mensaje(Long id, int intentos) {
+        return new TestDueMessage(id, MessageTemplate.TOTEM_TICKET_CREADO.name(), intentos,
+                TicketStatus.EN_ESPERA.name(), "C01", QueueType.CAJA.name(), 3, 15, null);
+    }
+
+    private static DueMessage mensaje(Long id, MessageTemplate plantilla, TicketStatus ticketStatus) {
+        return new TestDueMessage(id, plantilla.name(), 0, ticketStatus.name(), "C01",
+                QueueType.CAJA.name(), 0, 0, 4);
+    }
+
+    private record TestDueMessage(
+            Long getId, String getPlantilla, int getIntentos, String getTicketStatus, String getNumero,
+            String getQueueType, Integer getPositionInQueue, Integer getEstimatedWaitMinutes,
+            Integer getAssignedModuleNumber
+    ) implements DueMessage {}
+}
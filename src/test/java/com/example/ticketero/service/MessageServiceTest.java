@@ -1,8 +1,10 @@
 package com.example.ticketero.service;
 
+import com.example.ticketero.model.dto.response.MessageReplayResponse;
 import com.example.ticketero.model.entity.Mensaje;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.model.event.MessageScheduledEvent;
 import com.example.ticketero.repository.MensajeRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,10 +14,10 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 import static com.example.ticketero.testutil.TestDataBuilder.*;
 import static org.assertj.core.api.Assertions.*;
@@ -29,6 +31,9 @@ class MessageServiceTest {
     @Mock
     private MensajeRepository mensajeRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private MessageService messageService;
 
@@ -61,6 +66,19 @@ class MessageServiceTest {
             assertThat(mensaje.getEstadoEnvio()).isEqualTo(Mensaje.EstadoEnvio.PENDIENTE);
             assertThat(mensaje.getIntentos()).isEqualTo(0);
         }
+
+        @Test
+        @DisplayName("debe publicar el vencimiento para agendarlo en el scheduler")
+        void scheduleMessage_debePublicarVencimiento() {
+            // Given
+            LocalDateTime scheduledTime = LocalDateTime.now().plusMinutes(5);
+
+            // When
+            messageService.scheduleMessage(ticketWaiting().build(), MessageTemplate.TOTEM_ES_TU_TURNO, scheduledTime);
+
+            // Then
+            verify(eventPublisher).publishEvent(new MessageScheduledEvent(null, scheduledTime));
+        }
     }
 
     @Nested
@@ -86,16 +104,49 @@ class MessageServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("scheduleTicketCreatedMessages()")
+    class ScheduleTicketCreatedMessages {
+
+        @Test
+        @DisplayName("lote de tickets → debe insertar en un batch y publicar cada vencimiento")
+        void scheduleTicketCreatedMessages_debeInsertarEnBatchYPublicar() {
+            // Given
+            List<Ticket> tickets = List.of(ticketWaiting().id(1L).build(), ticketWaiting().id(2L).build());
+            doAnswer(invocation -> {
+                List<Mensaje> mensajes = invocation.getArgument(0);
+                mensajes.get(0).setId(10L);
+                mensajes.get(1).setId(11L);
+                return null;
+            }).when(mensajeRepository).insertAll(anyList());
+
+            // When
+            messageService.scheduleTicketCreatedMessages(tickets);
+
+            // Then
+            verify(mensajeRepository, never()).save(any());
+            verify(mensajeRepository).insertAll(argThat(mensajes -> mensajes.size() == 2
+                && mensajes.stream().allMatch(mensaje ->
+                    mensaje.getPlantilla() == MessageTemplate.TOTEM_TICKET_CREADO
+                        && mensaje.getEstadoEnvio() == Mensaje.EstadoEnvio.PENDIENTE
+                        && mensaje.getCreatedAt() != null)));
+            ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+            verify(eventPublisher, times(2)).publishEvent(events.capture());
+            assertThat(events.getAllValues())
+                .extracting(event -> ((MessageScheduledEvent) event).mensajeId())
+                .containsExactly(10L, 11L);
+        }
+    }
+
     @Nested
     @DisplayName("scheduleProximoTurnoMessage()")
     class ScheduleProximoTurnoMessage {
 
         @Test
-        @DisplayName("debe programar mensaje 5 minutos antes del tiempo estimado")
-        void scheduleProximoTurno_debeProgramar5MinutesAntes() {
+        @DisplayName("debe programar el aviso de inmediato")
+        void scheduleProximoTurno_debeProgramarInmediato() {
             // Given
             Ticket ticket = ticketWaiting().estimatedWaitMinutes(10).build();
-            LocalDateTime expectedTime = LocalDateTime.now().plusMinutes(5); // 10 - 5
 
             // When
             messageService.scheduleProximoTurnoMessage(ticket);
@@ -106,117 +157,81 @@ class MessageServiceTest {
 
             Mensaje mensaje = captor.getValue();
             assertThat(mensaje.getPlantilla()).isEqualTo(MessageTemplate.TOTEM_PROXIMO_TURNO);
-            assertThat(mensaje.getFechaProgramada()).isCloseTo(expectedTime, within(1, java.time.temporal.ChronoUnit.MINUTES));
+            assertThat(mensaje.getFechaProgramada()).isBeforeOrEqualTo(LocalDateTime.now());
         }
+    }
+
+    @Nested
+    @DisplayName("scheduleEsTuTurnoMessage()")
+    class ScheduleEsTuTurnoMessage {
 
         @Test
-        @DisplayName("con tiempo estimado menor a 5 min → debe programar en 1 minuto")
-        void scheduleProximoTurno_tiempoMenorA5_debeProgramarEn1Minuto() {
+        @DisplayName("debe descartar el aviso de PROXIMO pendiente y programar ES_TU_TURNO de inmediato")
+        void scheduleEsTuTurno_debeDescartarProximoYProgramar() {
             // Given
-            Ticket ticket = ticketWaiting().estimatedWaitMinutes(3).build();
+            Ticket ticket = ticketInProgress().id(7L).build();
 
             // When
-            messageService.scheduleProximoTurnoMessage(ticket);
+            messageService.scheduleEsTuTurnoMessage(ticket);
 
             // Then
+            verify(mensajeRepository).discardPendingMessages(7L, List.of(MessageTemplate.TOTEM_PROXIMO_TURNO));
             ArgumentCaptor<Mensaje> captor = ArgumentCaptor.forClass(Mensaje.class);
             verify(mensajeRepository).save(captor.capture());
-
-            Mensaje mensaje = captor.getValue();
-            assertThat(mensaje.getFechaProgramada()).isCloseTo(
-                LocalDateTime.now().plusMinutes(1), 
-                within(1, java.time.temporal.ChronoUnit.MINUTES)
-            );
+            assertThat(captor.getValue().getPlantilla()).isEqualTo(MessageTemplate.TOTEM_ES_TU_TURNO);
+            assertThat(captor.getValue().getFechaProgramada()).isBeforeOrEqualTo(LocalDateTime.now());
         }
     }
 
-    // ============================================================
-    // MESSAGE STATUS MANAGEMENT
-    // ============================================================
-    
     @Nested
-    @DisplayName("markMessageAsSent()")
-    class MarkMessageAsSent {
+    @DisplayName("discardPendingMessages()")
+    class DiscardPendingMessages {
 
         @Test
-        @DisplayName("debe marcar mensaje como enviado con datos correctos")
-        void markAsSent_debeMarcaComoEnviadoConDatos() {
+        @DisplayName("ticket cerrado → debe descartar sus mensajes pendientes de todas las plantillas")
+        void discardPendingMessages_debeDescartarTodasLasPlantillas() {
             // Given
-            Mensaje mensaje = Mensaje.builder()
-                .id(1L)
-                .estadoEnvio(Mensaje.EstadoEnvio.PENDIENTE)
-                .build();
-            
-            when(mensajeRepository.findById(1L)).thenReturn(Optional.of(mensaje));
+            when(mensajeRepository.discardPendingMessages(eq(7L), any())).thenReturn(2);
 
             // When
-            messageService.markMessageAsSent(1L, "telegram123");
+            messageService.discardPendingMessages(7L);
 
             // Then
-            assertThat(mensaje.getEstadoEnvio()).isEqualTo(Mensaje.EstadoEnvio.ENVIADO);
-            assertThat(mensaje.getTelegramMessageId()).isEqualTo("telegram123");
-            assertThat(mensaje.getFechaEnvio()).isNotNull();
-        }
-
-        @Test
-        @DisplayName("mensaje inexistente → debe lanzar RuntimeException")
-        void markAsSent_mensajeInexistente_debeLanzarExcepcion() {
-            // Given
-            when(mensajeRepository.findById(999L)).thenReturn(Optional.empty());
-
-            // When + Then
-            assertThatThrownBy(() -> messageService.markMessageAsSent(999L, "telegram123"))
-                .isInstanceOf(RuntimeException.class)
-                .hasMessageContaining("999");
+            verify(mensajeRepository).discardPendingMessages(7L, List.of(MessageTemplate.values()));
         }
     }
 
     @Nested
-    @DisplayName("markMessageAsFailed()")
-    class MarkMessageAsFailed {
+    @DisplayName("replayDeadLetters()")
+    class ReplayDeadLetters {
 
         @Test
-        @DisplayName("debe marcar como fallido e incrementar intentos")
-        void markAsFailed_debeMarcaFallidoEIncrementarIntentos() {
+        @DisplayName("debe reenviar en una sola sentencia, agendar los reenviados y retornar los que quedan")
+        void replayDeadLetters_debeReenviarEnBloque() {
             // Given
-            Mensaje mensaje = Mensaje.builder()
-                .id(1L)
-                .estadoEnvio(Mensaje.EstadoEnvio.PENDIENTE)
-                .intentos(2)
-                .build();
-            
-            when(mensajeRepository.findById(1L)).thenReturn(Optional.of(mensaje));
+            when(mensajeRepository.replayDeadLetters(any(), eq(500))).thenReturn(List.of(1L, 2L, 3L));
+            when(mensajeRepository.countByEstadoEnvio(Mensaje.EstadoEnvio.AGOTADO)).thenReturn(20L);
 
             // When
-            messageService.markMessageAsFailed(1L);
+            MessageReplayResponse response = messageService.replayDeadLetters(500);
 
             // Then
-            assertThat(mensaje.getEstadoEnvio()).isEqualTo(Mensaje.EstadoEnvio.FALLIDO);
-            assertThat(mensaje.getIntentos()).isEqualTo(3);
+            assertThat(response.replayed()).isEqualTo(3);
+            assertThat(response.remaining()).isEqualTo(20L);
+            verify(eventPublisher, times(3)).publishEvent(any(MessageScheduledEvent.class));
         }
-    }
-
-    @Nested
-    @DisplayName("findPendingMessages()")
-    class FindPendingMessages {
 
         @Test
-        @DisplayName("debe buscar mensajes pendientes listos para enviar")
-        void findPending_debeBuscarMensajesPendientes() {
+        @DisplayName("límite sobre el máximo → debe acotarse a 1000 mensajes")
+        void replayDeadLetters_limiteSobreMaximo_debeAcotarse() {
             // Given
-            List<Mensaje> mensajes = List.of(
-                Mensaje.builder().build(),
-                Mensaje.builder().build()
-            );
-            when(mensajeRepository.findPendingMessagesReadyToSend(any(LocalDateTime.class)))
-                .thenReturn(mensajes);
+            when(mensajeRepository.replayDeadLetters(any(), eq(1000))).thenReturn(List.of());
 
             // When
-            List<Mensaje> result = messageService.findPendingMessages();
+            messageService.replayDeadLetters(50_000);
 
             // Then
-            assertThat(result).hasSize(2);
-            verify(mensajeRepository).findPendingMessagesReadyToSend(any(LocalDateTime.class));
+            verify(mensajeRepository).replayDeadLetters(any(), eq(1000));
         }
     }
-}
\ No newline at end of file
+}
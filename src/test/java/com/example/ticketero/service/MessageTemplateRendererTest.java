@@ -0,0 +1,98 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.repository.MensajeRepository.DueMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MessageTemplateRenderer - Unit Tests")
+class MessageTemplateRendererTest {
+
+    private final MessageTemplateRenderer renderer = new MessageTemplateRenderer("es");
+
+    @Test
+    @DisplayName("ticket creado → debe producir el mismo texto que el formato anterior")
+    void render_ticketCreado_debeProducirTextoCompleto() {
+        // When
+        String content = renderer.render(MessageTemplate.TOTEM_TICKET_CREADO, mensaje(4));
+
+        // Then
+        assertThat(content).isEqualTo(
+                "🎫 Ticket creado: C05\nCola: Caja\nPosición: 3\nTiempo estimado: 15 minutos");
+    }
+
+    @Test
+    @DisplayName("próximo turno → debe incluir solo el número del ticket")
+    void render_proximoTurno_debeIncluirNumero() {
+        // When
+        String content = renderer.render(MessageTemplate.TOTEM_PROXIMO_TURNO, mensaje(4));
+
+        // Then
+        assertThat(content).isEqualTo(
+                "⏰ ¡Tu turno se acerca!\nTicket: C05\nPrepárate, serás atendido pronto.");
+    }
+
+    @Test
+    @DisplayName("es tu turno sin módulo asignado → debe mostrar módulo 0")
+    void render_esTuTurnoSinModulo_debeMostrarCero() {
+        // When
+        String conModulo = renderer.render(MessageTemplate.TOTEM_ES_TU_TURNO, mensaje(4));
+        String sinModulo = renderer.render(MessageTemplate.TOTEM_ES_TU_TURNO, mensaje(null));
+
+        // Then
+        assertThat(conModulo).isEqualTo("🔔 ¡ES TU TURNO!\nTicket: C05\nDirígete al módulo 4");
+        assertThat(sinModulo).endsWith("Dirígete al módulo 0");
+    }
+
+    @Test
+    @DisplayName("idioma sin traducción → debe usar los textos por defecto")
+    void constructor_idiomaSinTraduccion_debeUsarTextosPorDefecto() {
+        // Given
+        MessageTemplateRenderer sinTraduccion = new MessageTemplateRenderer("fr");
+
+        // When + Then
+        assertThat(sinTraduccion.render(MessageTemplate.TOTEM_PROXIMO_TURNO, mensaje(4)))
+                .startsWith("⏰ ¡Tu turno se acerca!");
+    }
+
+    @Test
+    @DisplayName("compile() → debe separar texto fijo y marcadores")
+    void compile_debeSepararTextoYMarcadores() {
+        // When
+        MessageTemplateRenderer.Segment[] segments =
+                MessageTemplateRenderer.compile("prueba", "{numero} en {cola}.");
+
+        // Then
+        assertThat(segments).containsExactly(
+                new MessageTemplateRenderer.Segment(null, MessageTemplateRenderer.Field.NUMERO),
+                new MessageTemplateRenderer.Segment(" en ", null),
+                new MessageTemplateRenderer.Segment(null, MessageTemplateRenderer.Field.COLA),
+                new MessageTemplateRenderer.Segment(".", null));
+    }
+
+    @Test
+    @DisplayName("marcador desconocido → debe fallar al compilar")
+    void compile_marcadorDesconocido_debeLanzarExcepcion() {
+        // When + Then
+        assertThatThrownBy(() -> MessageTemplateRenderer.compile("prueba", "Hola {nombre}"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("{nombre}");
+    }
+
+    private static DueMessage mensaje(Integer modulo) {
+        return new DueMessage() {
+            public Long getId() { return 1L; }
+            public String getPlantilla() { return MessageTemplate.TOTEM_TICKET_CREADO.name(); }
+            public int getIntentos() { return 0; }
+            public String getTicketStatus() { return "EN_ESPERA"; }
+            public String getNumero() { return "C05"; }
+            public String getQueueType() { return QueueType.CAJA.name(); }
+            public Integer getPositionInQueue() { return 3; }
+            public Integer getEstimatedWaitMinutes() { return 15; }
+            public Integer getAssignedModuleNumber() { return modulo; }
+        };
+    }
+}
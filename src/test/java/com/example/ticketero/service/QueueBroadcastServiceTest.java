@@ -0,0 +1,175 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.RemoteTicketStatusChangedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QueueBroadcastService - Unit Tests")
+class QueueBroadcastServiceTest {
+
+    private static final String SUCURSAL = "Sucursal Centro";
+
+    @Mock
+    private TicketService ticketService;
+
+    private final Deque<RecordingEmitter> emitters = new ArrayDeque<>();
+
+    private QueueBroadcastService queueBroadcastService;
+
+    @BeforeEach
+    void setUp() {
+        queueBroadcastService = new QueueBroadcastService(ticketService, new ObjectMapper()) {
+            @Override
+            SseEmitter newEmitter() {
+                return emitters.isEmpty() ? new RecordingEmitter() : emitters.poll();
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        queueBroadcastService.shutdown();
+    }
+
+    /**
+     * Registra los datos enviados; opcionalmente bloquea cada envío hasta liberarlo
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final Queue<String> sent = new ConcurrentLinkedQueue<>();
+        private final CountDownLatch release;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            sent.add(builder.build().stream()
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .map(String::valueOf)
+                .collect(Collectors.joining()));
+        }
+    }
+
+    private static TicketStatusChangedEvent llamado(Long ticketId) {
+        return new TicketStatusChangedEvent(
+            ticketId, "C01", SUCURSAL, QueueType.CAJA, TicketStatus.PROXIMO, TicketStatus.ATENDIENDO, 3, LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("subscribe() → debe registrar la pantalla solo en su sucursal y cola")
+    void subscribe_debeRegistrarPorSucursalYCola() {
+        // Given
+        when(ticketService.findActiveTicketsByBranchOfficeAndQueueType(SUCURSAL, QueueType.CAJA)).thenReturn(List.of());
+
+        // When
+        SseEmitter emitter = queueBroadcastService.subscribe(SUCURSAL, QueueType.CAJA);
+
+        // Then
+        assertThat(emitter).isNotNull();
+        assertThat(queueBroadcastService.subscriberCount(SUCURSAL, QueueType.CAJA)).isEqualTo(1);
+        assertThat(queueBroadcastService.subscriberCount(SUCURSAL, QueueType.EMPRESAS)).isZero();
+        assertThat(queueBroadcastService.subscriberCount("Sucursal Norte", QueueType.CAJA)).isZero();
+    }
+
+    @Test
+    @DisplayName("cambios de estado → no deben consultar la base de datos")
+    void onTicketStatusChanged_noDebeConsultarBaseDeDatos() {
+        // Given
+        when(ticketService.findActiveTicketsByBranchOfficeAndQueueType(SUCURSAL, QueueType.CAJA)).thenReturn(List.of());
+        queueBroadcastService.subscribe(SUCURSAL, QueueType.CAJA);
+
+        // When
+        queueBroadcastService.onTicketStatusChanged(llamado(1L));
+
+        // Then
+        verify(ticketService, times(1)).findActiveTicketsByBranchOfficeAndQueueType(SUCURSAL, QueueType.CAJA);
+        verifyNoMoreInteractions(ticketService);
+    }
+
+    @Test
+    @DisplayName("cambio de estado de otra instancia → debe enviarse a las pantallas de la cola")
+    void onRemoteTicketStatusChanged_debeEnviarseALasPantallas() {
+        // Given
+        RecordingEmitter pantalla = new RecordingEmitter();
+        emitters.add(pantalla);
+        when(ticketService.findActiveTicketsByBranchOfficeAndQueueType(SUCURSAL, QueueType.CAJA)).thenReturn(List.of());
+        queueBroadcastService.subscribe(SUCURSAL, QueueType.CAJA);
+
+        // When
+        queueBroadcastService.onRemoteTicketStatusChanged(new RemoteTicketStatusChangedEvent(llamado(42L)));
+
+        // Then
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> assertThat(pantalla.sent).hasSize(2));
+        assertThat(List.copyOf(pantalla.sent).get(1)).contains("TICKET_CALLED", "42");
+    }
+
+    @Test
+    @DisplayName("pantalla lenta → debe desconectarse sin demorar a las demás")
+    void broadcast_pantallaLenta_debeDesconectarseSinDemorarALasDemas() {
+        // Given
+        ReflectionTestUtils.setField(queueBroadcastService, "maxPendingUpdates", 2);
+        CountDownLatch liberarLenta = new CountDownLatch(1);
+        RecordingEmitter lenta = new RecordingEmitter(liberarLenta);
+        RecordingEmitter rapida = new RecordingEmitter();
+        emitters.add(lenta);
+        emitters.add(rapida);
+        when(ticketService.findActiveTicketsByBranchOfficeAndQueueType(SUCURSAL, QueueType.CAJA)).thenReturn(List.of());
+        queueBroadcastService.subscribe(SUCURSAL, QueueType.CAJA);
+        queueBroadcastService.subscribe(SUCURSAL, QueueType.CAJA);
+
+        try {
+            // When: la lenta queda bloqueada en el estado inicial y acumula envíos
+            for (int enviados = 1; enviados <= 4; enviados++) {
+                queueBroadcastService.onTicketStatusChanged(llamado((long) enviados));
+                int esperados = enviados + 1;
+                await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> assertThat(rapida.sent).hasSize(esperados));
+            }
+
+            // Then
+            assertThat(queueBroadcastService.subscriberCount(SUCURSAL, QueueType.CAJA)).isEqualTo(1);
+            assertThat(lenta.sent).isEmpty();
+        } finally {
+            liberarLenta.countDown();
+        }
+    }
+}
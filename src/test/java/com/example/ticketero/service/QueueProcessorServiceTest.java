@@ -5,6 +5,7 @@ import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.AdvisorStatus;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
 import com.example.ticketero.repository.AdvisorRepository;
 import com.example.ticketero.repository.TicketRepository;
 import org.junit.jupiter.api.DisplayName;
@@ -13,14 +14,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static com.example.ticketero.testutil.TestDataBuilder.*;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +42,15 @@ class QueueProcessorServiceTest {
     @Mock
     private AdvisorService advisorService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MessageService messageService;
+
+    @Spy
+    private TicketQueueIndex queueIndex = new TicketQueueIndex();
+
     @InjectMocks
     private QueueProcessorService queueProcessorService;
 
@@ -53,13 +68,13 @@ class QueueProcessorServiceTest {
             // Given
             Ticket ticketEspera = ticketWaiting().build();
             Advisor advisorDisponible = advisorAvailable().build();
+            queueIndex.rebuild(List.of(ticketEspera));
             
-            when(ticketRepository.findByStatus(TicketStatus.EN_ESPERA))
+            when(advisorRepository.countByStatus(AdvisorStatus.AVAILABLE)).thenReturn(1L);
+            when(advisorRepository.claimNextAvailableAdvisor())
+                .thenReturn(Optional.of(advisorDisponible));
+            when(ticketRepository.claimWaitingTickets("Sucursal Centro", QueueType.CAJA, 1))
                 .thenReturn(List.of(ticketEspera));
-            when(advisorRepository.findAvailableAdvisorsOrderByWorkload())
-                .thenReturn(List.of(advisorDisponible));
-            when(ticketRepository.findActiveTicketsByQueueType(any(), any()))
-                .thenReturn(List.of());
 
             // When
             queueProcessorService.processQueues();
@@ -68,70 +83,208 @@ class QueueProcessorServiceTest {
             assertThat(ticketEspera.getStatus()).isEqualTo(TicketStatus.ATENDIENDO);
             assertThat(ticketEspera.getAssignedAdvisor()).isEqualTo(advisorDisponible);
             assertThat(ticketEspera.getAssignedModuleNumber()).isEqualTo(advisorDisponible.getModuleNumber());
-            // Note: positionInQueue is updated in updateTicketToProximoIfApplicable, not set to 0
+            assertThat(ticketEspera.getPositionInQueue()).isEqualTo(0);
+            assertThat(queueIndex.isEmpty()).isTrue();
             
-            verify(advisorService).incrementAssignedTicketsCount(advisorDisponible.getId());
+            verify(advisorService, never()).decrementAssignedTicketsCount(any());
+            verify(messageService).scheduleEsTuTurnoMessage(ticketEspera);
+        }
+
+        @Test
+        @DisplayName("con más tickets que advisors → debe asignar el más antiguo y reordenar el resto")
+        void processQueues_masTicketsQueAdvisors_debeAsignarElMasAntiguo() {
+            // Given
+            LocalDateTime ahora = LocalDateTime.now();
+            Ticket ticket1 = ticketWaiting().id(1L).createdAt(ahora.minusMinutes(2)).positionInQueue(1).build();
+            Ticket ticket2 = ticketWaiting().id(2L).createdAt(ahora.minusMinutes(1)).positionInQueue(2).build();
+            Advisor advisorDisponible = advisorAvailable().build();
+            queueIndex.rebuild(List.of(ticket1, ticket2));
+
+            when(advisorRepository.countByStatus(AdvisorStatus.AVAILABLE)).thenReturn(1L);
+            when(advisorRepository.claimNextAvailableAdvisor())
+                .thenReturn(Optional.of(advisorDisponible));
+            when(ticketRepository.claimWaitingTickets("Sucursal Centro", QueueType.CAJA, 1))
+                .thenReturn(List.of(ticket1));
+
+            // When
+            queueProcessorService.processQueues();
+
+            // Then
+            assertThat(ticket1.getStatus()).isEqualTo(TicketStatus.ATENDIENDO);
+            assertThat(queueIndex.positionOf(2L)).isEqualTo(1);
+            verify(ticketRepository).promoteProximoTickets(3);
+        }
+
+        @Test
+        @DisplayName("tickets de varias colas → debe asignar primero los más antiguos entre colas")
+        void processQueues_variasColas_debeAsignarLosMasAntiguos() {
+            // Given: el ticket de EMPRESAS lo creó otra instancia y aún no está en el índice
+            LocalDateTime ahora = LocalDateTime.now();
+            Ticket caja = ticketWaiting().id(1L).createdAt(ahora.minusMinutes(1)).build();
+            Ticket empresas = ticketWaiting().id(2L).queueType(QueueType.EMPRESAS)
+                .createdAt(ahora.minusMinutes(5)).build();
+            Ticket empresasLocal = ticketWaiting().id(3L).queueType(QueueType.EMPRESAS)
+                .createdAt(ahora.minusMinutes(4)).build();
+            Advisor advisorDisponible = advisorAvailable().build();
+            queueIndex.rebuild(List.of(caja, empresasLocal));
+
+            when(advisorRepository.countByStatus(AdvisorStatus.AVAILABLE)).thenReturn(1L);
+            when(advisorRepository.claimNextAvailableAdvisor())
+                .thenReturn(Optional.of(advisorDisponible));
+            when(ticketRepository.claimWaitingTickets("Sucursal Centro", QueueType.CAJA, 1))
+                .thenReturn(List.of(caja));
+            when(ticketRepository.claimWaitingTickets("Sucursal Centro", QueueType.EMPRESAS, 1))
+                .thenReturn(List.of(empresas));
+
+            // When
+            queueProcessorService.processQueues();
+
+            // Then
+            assertThat(empresas.getStatus()).isEqualTo(TicketStatus.ATENDIENDO);
+            assertThat(caja.getStatus()).isEqualTo(TicketStatus.EN_ESPERA);
+            assertThat(queueIndex.positionOf(1L)).isEqualTo(1);
+            verify(advisorRepository).claimNextAvailableAdvisor();
         }
 
         @Test
-        @DisplayName("sin advisors disponibles → debe marcar como PROXIMO si está en top 3")
-        void processQueues_sinAdvisors_debeMarcaProximoSiEsTop3() {
+        @DisplayName("sin advisors disponibles → no debe reclamar tickets")
+        void processQueues_sinAdvisors_noDebeReclamarTickets() {
+            // Given
+            queueIndex.rebuild(List.of(ticketWaiting().build()));
+
+            when(advisorRepository.countByStatus(AdvisorStatus.AVAILABLE)).thenReturn(0L);
+
+            // When
+            queueProcessorService.processQueues();
+
+            // Then
+            verify(ticketRepository, never()).claimWaitingTickets(any(), any(), anyInt());
+            verify(advisorRepository, never()).claimNextAvailableAdvisor();
+        }
+
+        @Test
+        @DisplayName("sin advisors disponibles → debe promover PROXIMO sin reescribir posiciones")
+        void processQueues_sinAdvisors_debePromoverSinReescribirPosiciones() {
             // Given
             Ticket ticket1 = ticketWaiting().id(1L).positionInQueue(1).build();
             Ticket ticket2 = ticketWaiting().id(2L).positionInQueue(2).build();
+            queueIndex.rebuild(List.of(ticket1, ticket2));
             
-            when(ticketRepository.findByStatus(TicketStatus.EN_ESPERA))
-                .thenReturn(List.of(ticket1, ticket2));
-            when(advisorRepository.findAvailableAdvisorsOrderByWorkload())
-                .thenReturn(List.of());
-            when(ticketRepository.findActiveTicketsByQueueType(any(), any()))
-                .thenReturn(List.of(ticket1, ticket2));
+            when(advisorRepository.countByStatus(AdvisorStatus.AVAILABLE)).thenReturn(0L);
 
             // When
             queueProcessorService.processQueues();
 
             // Then
-            assertThat(ticket1.getStatus()).isEqualTo(TicketStatus.PROXIMO);
-            assertThat(ticket2.getStatus()).isEqualTo(TicketStatus.PROXIMO);
+            verify(ticketRepository).promoteProximoTickets(3);
+            verify(ticketRepository, never()).updateQueuePositions(anyInt());
+            assertThat(queueIndex.positionOf(2L)).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("con persist-positions → debe recalcular en una sentencia y publicar las promociones")
+        void processQueues_persistPositions_debePublicarPromociones() {
+            // Given
+            ReflectionTestUtils.setField(queueProcessorService, "persistPositions", true);
+            Ticket ticketPromovido = ticketWaiting().status(TicketStatus.PROXIMO).build();
+            queueIndex.rebuild(List.of(ticketWaiting().build()));
+            
+            when(advisorRepository.countByStatus(AdvisorStatus.AVAILABLE)).thenReturn(0L);
+            when(ticketRepository.updateQueuePositions(3))
+                .thenReturn(List.of(ticketPromovido));
+
+            // When
+            queueProcessorService.processQueues();
+
+            // Then
+            verify(ticketRepository, never()).promoteProximoTickets(anyInt());
+            verify(messageService).scheduleProximoTurnoMessage(ticketPromovido);
+            verify(eventPublisher).publishEvent(
+                TicketStatusChangedEvent.of(ticketPromovido, TicketStatus.EN_ESPERA));
         }
 
         @Test
         @DisplayName("sin tickets en espera → no debe hacer nada")
         void processQueues_sinTickets_noDebeHacerNada() {
             // Given
-            when(ticketRepository.findByStatus(TicketStatus.EN_ESPERA))
+            queueIndex.rebuild(List.of());
+
+            // When
+            queueProcessorService.processQueues();
+
+            // Then
+            verify(advisorRepository, never()).claimNextAvailableAdvisor();
+            verify(ticketRepository, never()).promoteProximoTickets(anyInt());
+        }
+
+        @Test
+        @DisplayName("índice sin inicializar → debe reconstruirlo desde la base de datos")
+        void processQueues_indiceSinInicializar_debeReconstruirlo() {
+            // Given
+            when(ticketRepository.findByStatusInOrderByCreatedAtAscIdAsc(any()))
                 .thenReturn(List.of());
 
             // When
             queueProcessorService.processQueues();
 
             // Then
-            verify(advisorRepository, never()).findAvailableAdvisorsOrderByWorkload();
-            verify(advisorService, never()).incrementAssignedTicketsCount(any());
+            verify(ticketRepository).findByStatusInOrderByCreatedAtAscIdAsc(
+                List.of(TicketStatus.EN_ESPERA, TicketStatus.PROXIMO));
+            assertThat(queueIndex.isStale()).isFalse();
         }
 
         @Test
-        @DisplayName("debe actualizar posiciones de todos los tickets activos")
-        void processQueues_debeActualizarPosiciones() {
+        @DisplayName("reconcileQueues() → debe reconstruir el índice aunque esté al día")
+        void reconcileQueues_debeReconstruirIndice() {
             // Given
             Ticket ticketEspera = ticketWaiting().build();
-            Ticket ticketProximo = ticketWaiting().status(TicketStatus.PROXIMO).build();
-            
-            when(ticketRepository.findByStatus(TicketStatus.EN_ESPERA))
+            queueIndex.rebuild(List.of());
+
+            when(ticketRepository.findByStatusInOrderByCreatedAtAscIdAsc(any()))
                 .thenReturn(List.of(ticketEspera));
-            when(ticketRepository.findByStatus(TicketStatus.PROXIMO))
-                .thenReturn(List.of(ticketProximo));
-            when(advisorRepository.findAvailableAdvisorsOrderByWorkload())
-                .thenReturn(List.of());
-            when(ticketRepository.findActiveTicketsByQueueType(any(), any()))
-                .thenReturn(List.of(ticketEspera, ticketProximo));
 
             // When
+            queueProcessorService.reconcileQueues();
+
+            // Then
+            assertThat(queueIndex.positionOf(ticketEspera.getId())).isEqualTo(1);
+            verify(ticketRepository).promoteProximoTickets(3);
+        }
+
+        @Test
+        @DisplayName("tickets promovidos a PROXIMO → debe publicar su cambio de estado y avisarles")
+        void processQueues_ticketsPromovidos_debePublicarCambioDeEstado() {
+            // Given
+            Ticket ticketEspera = ticketWaiting().build();
+            Ticket ticketPromovido = ticketWaiting().status(TicketStatus.PROXIMO).build();
+            queueIndex.rebuild(List.of(ticketEspera));
+
+            when(ticketRepository.promoteProximoTickets(3))
+                .thenReturn(List.of(ticketPromovido));
+
+            // When
+            queueProcessorService.processQueues();
+
+            // Then
+            verify(eventPublisher).publishEvent(
+                TicketStatusChangedEvent.of(ticketPromovido, TicketStatus.EN_ESPERA));
+            verify(messageService).scheduleProximoTurnoMessage(ticketPromovido);
+        }
+
+        @Test
+        @DisplayName("sin cambios entre ciclos → no debe recalcular posiciones")
+        void processQueues_sinCambios_noDebeRecalcularPosiciones() {
+            // Given
+            Ticket ticketEspera = ticketWaiting().build();
+            queueIndex.rebuild(List.of(ticketEspera));
+            
+
+            // When
+            queueProcessorService.processQueues();
             queueProcessorService.processQueues();
 
             // Then
-            verify(ticketRepository, times(2)).findByStatus(TicketStatus.EN_ESPERA);
-            verify(ticketRepository).findByStatus(TicketStatus.PROXIMO);
+            verify(ticketRepository, times(1)).promoteProximoTickets(anyInt());
         }
     }
 
@@ -161,6 +314,8 @@ class QueueProcessorServiceTest {
             // Then
             assertThat(ticket.getStatus()).isEqualTo(TicketStatus.COMPLETADO);
             verify(advisorService).decrementAssignedTicketsCount(advisor.getId());
+            verify(eventPublisher).publishEvent(
+                TicketStatusChangedEvent.of(ticket, TicketStatus.ATENDIENDO));
         }
 
         @Test
@@ -221,6 +376,7 @@ class QueueProcessorServiceTest {
             // Then
             assertThat(ticket.getStatus()).isEqualTo(TicketStatus.CANCELADO);
             verify(advisorService).decrementAssignedTicketsCount(advisor.getId());
+            verify(messageService).discardPendingMessages(1L);
         }
 
         @Test
@@ -0,0 +1,234 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.WireMockConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Pruebas contra la API de Telegram simulada con WireMock (puerto dinámico para no
+ * chocar con el servidor de WireMockConfig de las pruebas de integración)
+ */
+@DisplayName("TelegramSender - Unit Tests")
+class TelegramSenderTest {
+
+    private static final String CHAT_ID = "123456789";
+
+    private static WireMockServer telegram;
+
+    private TelegramSender sender;
+
+    @BeforeAll
+    static void startTelegram() {
+        telegram = new WireMockServer(wireMockConfig().dynamicPort());
+        telegram.start();
+    }
+
+    @AfterAll
+    static void stopTelegram() {
+        telegram.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        WireMockConfig.resetMocks(telegram);
+        sender = sender("test-token", CHAT_ID, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.shutdown();
+    }
+
+    @Test
+    @DisplayName("envío exitoso → debe retornar el message_id y enviar al chat configurado")
+    void send_exitoso_debeRetornarMessageId() throws Exception {
+        // When
+        String messageId = sender.send("🎫 Ticket creado: C01").get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(messageId).isEqualTo("12345");
+        telegram.verify(postRequestedFor(urlEqualTo("/bottest-token/sendMessage"))
+                .withRequestBody(matchingJsonPath("$.chat_id", equalTo(CHAT_ID)))
+                .withRequestBody(matchingJsonPath("$.text", equalTo("🎫 Ticket creado: C01"))));
+    }
+
+    @Test
+    @DisplayName("sin chat-id configurado → debe simular el envío sin llamar a la API")
+    void send_sinChatId_debeSimularSinLlamar() throws Exception {
+        // Given
+        sender.shutdown();
+        sender = sender("test-token", "", 1000);
+
+        // When
+        String messageId = sender.send("Hola").get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(messageId).isNotBlank();
+        telegram.verify(0, postRequestedFor(anyUrl()));
+    }
+
+    @Test
+    @DisplayName("429 con retry_after → debe esperar lo indicado y reintentar")
+    void send_rateLimit_debeEsperarYReintentar() throws Exception {
+        // Given
+        telegram.stubFor(post(urlPathMatching("/bot.*/sendMessage"))
+                .inScenario("flood").whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse()
+                        .withStatus(429)
+                        .withBody("{\"ok\":false,\"error_code\":429,\"parameters\":{\"retry_after\":1}}"))
+                .willSetStateTo("liberado"));
+        telegram.stubFor(post(urlPathMatching("/bot.*/sendMessage"))
+                .inScenario("flood").whenScenarioStateIs("liberado")
+                .willReturn(okJson("{\"ok\":true,\"result\":{\"message_id\":777}}")));
+        long inicio = System.nanoTime();
+
+        // When
+        String messageId = sender.send("Hola").get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(messageId).isEqualTo("777");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isGreaterThanOrEqualTo(900);
+        telegram.verify(2, postRequestedFor(urlPathMatching("/bot.*/sendMessage")));
+    }
+
+    @Test
+    @DisplayName("429 persistente → debe fallar después de los reintentos")
+    void send_rateLimitPersistente_debeFallar() {
+        // Given
+        WireMockConfig.simulateTelegramRateLimit(telegram, 0);
+
+        // When + Then
+        assertThatThrownBy(() -> sender.send("Hola").get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasMessageContaining("429");
+    }
+
+    @Test
+    @DisplayName("error del servidor → el futuro debe fallar")
+    void send_errorServidor_debeFallar() {
+        // Given
+        WireMockConfig.simulateTelegramFailure(telegram);
+
+        // When + Then
+        assertThatThrownBy(() -> sender.send("Hola").get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasMessageContaining("500");
+    }
+
+    @Test
+    @DisplayName("API lenta → send() no debe bloquear y los envíos deben ir en paralelo")
+    void send_apiLenta_noDebeBloquearYDebeEnviarEnParalelo() throws Exception {
+        // Given
+        WireMockConfig.simulateTelegramLatency(telegram, 500);
+        long inicio = System.nanoTime();
+
+        // When
+        List<CompletableFuture<String>> envios = IntStream.range(0, 8)
+                .mapToObj(i -> sender.send("Mensaje " + i))
+                .toList();
+        long encolado = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        CompletableFuture.allOf(envios.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        long total = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        // Then
+        assertThat(encolado).isLessThan(200);
+        assertThat(total).isLessThan(8 * 500 / 2);
+        assertThat(envios).allMatch(envio -> "12345".equals(envio.join()));
+    }
+
+    @Test
+    @DisplayName("API que no responde → debe fallar al vencer el timeout de la llamada")
+    void send_apiSinRespuesta_debeFallarPorTimeout() {
+        // Given
+        WireMockConfig.simulateTelegramLatency(telegram, 3000);
+        sender.shutdown();
+        sender = new TelegramSender(new ObjectMapper(), telegram.baseUrl() + "/bot", "test-token", CHAT_ID, 8, 1000, 300);
+
+        // When + Then
+        assertThatThrownBy(() -> sender.send("Hola").get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+    }
+
+    @Test
+    @DisplayName("envío cancelado → debe abortar la llamada HTTP y liberar su cupo")
+    void send_cancelado_debeAbortarLaLlamada() throws Exception {
+        // Given: un solo envío en curso a la vez; la primera llamada tarda 5 s, las siguientes responden de inmediato
+        telegram.stubFor(post(urlPathMatching("/bot.*/sendMessage"))
+                .inScenario("lenta").whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(okJson("{\"ok\":true,\"result\":{\"message_id\":1}}").withFixedDelay(5000))
+                .willSetStateTo("rapida"));
+        telegram.stubFor(post(urlPathMatching("/bot.*/sendMessage"))
+                .inScenario("lenta").whenScenarioStateIs("rapida")
+                .willReturn(okJson("{\"ok\":true,\"result\":{\"message_id\":2}}")));
+        sender.shutdown();
+        sender = new TelegramSender(new ObjectMapper(), telegram.baseUrl() + "/bot", "test-token", CHAT_ID, 1, 1000, 10_000);
+        CompletableFuture<String> lento = sender.send("Lento");
+        await().atMost(2, TimeUnit.SECONDS)
+                .untilAsserted(() -> telegram.verify(1, postRequestedFor(urlPathMatching("/bot.*/sendMessage"))));
+
+        // When
+        lento.cancel(true);
+        String siguiente = sender.send("Siguiente").get(2, TimeUnit.SECONDS);
+
+        // Then: el siguiente envío obtuvo el cupo sin esperar la respuesta de la llamada abortada
+        assertThat(lento).isCancelled();
+        assertThat(siguiente).isEqualTo("2");
+    }
+
+    @Test
+    @DisplayName("límite de envíos por segundo → debe espaciar los envíos")
+    void send_limitePorSegundo_debeEspaciarEnvios() throws Exception {
+        // Given
+        sender.shutdown();
+        sender = sender("test-token", CHAT_ID, 5);
+        long inicio = System.nanoTime();
+
+        // When
+        List<CompletableFuture<String>> envios = IntStream.range(0, 4)
+                .mapToObj(i -> sender.send("Mensaje " + i))
+                .toList();
+        CompletableFuture.allOf(envios.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        // Then: 4 envíos a 5 por segundo requieren al menos 3 intervalos de 200 ms
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isGreaterThanOrEqualTo(550);
+    }
+
+    @Test
+    @DisplayName("sin token configurado → debe simular el envío sin llamar a la API")
+    void send_sinToken_debeSimularSinLlamar() {
+        // Given
+        sender.shutdown();
+        sender = sender("", CHAT_ID, 1000);
+
+        // When
+        CompletableFuture<String> envio = sender.send("Hola");
+
+        // Then
+        assertThat(envio).isCompleted();
+        assertThat(envio.join()).isNotBlank();
+        telegram.verify(0, postRequestedFor(anyUrl()));
+    }
+
+    private static TelegramSender sender(String token, String chatId, double ratePerSecond) {
+        return new TelegramSender(new ObjectMapper(), telegram.baseUrl() + "/bot", token, chatId,
+                8, ratePerSecond, 2000);
+    }
+}
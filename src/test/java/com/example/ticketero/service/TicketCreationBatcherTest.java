@@ -0,0 +1,109 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.dto.request.CreateTicketRequest;
+import com.example.ticketero.model.dto.response.TicketResponse;
+import com.example.ticketero.model.enums.QueueType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TicketCreationBatcher - Unit Tests")
+class TicketCreationBatcherTest {
+
+    @Mock
+    private TicketService ticketService;
+
+    private TicketCreationBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("group commit desactivado → debe crear el ticket de inmediato")
+    void submit_desactivado_debeCrearDeInmediato() {
+        // Given
+        batcher = new TicketCreationBatcher(ticketService, new SimpleMeterRegistry(), false, 5, 64);
+        CreateTicketRequest request = validTicketRequest();
+        TicketResponse response = response("C01");
+        when(ticketService.createTicket(request)).thenReturn(response);
+
+        // When
+        CompletableFuture<TicketResponse> result = batcher.submit(request);
+
+        // Then
+        assertThat(result).isCompletedWithValue(response);
+        verify(ticketService, never()).createTickets(any());
+    }
+
+    @Test
+    @DisplayName("solicitudes concurrentes → debe crearlas en un solo lote y completar cada una")
+    void submit_concurrentes_debeCrearEnUnLote() throws Exception {
+        // Given: el lote se cierra al llegar a 3 solicitudes
+        batcher = new TicketCreationBatcher(ticketService, new SimpleMeterRegistry(), true, 5000, 3);
+        CreateTicketRequest primera = request("11111111");
+        CreateTicketRequest segunda = request("22222222");
+        CreateTicketRequest tercera = request("33333333");
+        when(ticketService.createTickets(List.of(primera, segunda, tercera)))
+            .thenReturn(List.of(response("C01"), response("C02"), response("C03")));
+
+        // When
+        CompletableFuture<TicketResponse> r1 = batcher.submit(primera);
+        CompletableFuture<TicketResponse> r2 = batcher.submit(segunda);
+        CompletableFuture<TicketResponse> r3 = batcher.submit(tercera);
+
+        // Then
+        assertThat(r1.get(1, TimeUnit.SECONDS).numero()).isEqualTo("C01");
+        assertThat(r2.get(1, TimeUnit.SECONDS).numero()).isEqualTo("C02");
+        assertThat(r3.get(1, TimeUnit.SECONDS).numero()).isEqualTo("C03");
+        verify(ticketService, never()).createTicket(any());
+    }
+
+    @Test
+    @DisplayName("lote fallido → debe reintentar de a uno y fallar solo la solicitud inválida")
+    void submit_loteFallido_debeReintentarDeAUno() throws Exception {
+        // Given
+        batcher = new TicketCreationBatcher(ticketService, new SimpleMeterRegistry(), true, 5000, 2);
+        CreateTicketRequest valida = request("11111111");
+        CreateTicketRequest invalida = request("22222222");
+        when(ticketService.createTickets(any())).thenThrow(new RuntimeException("duplicate key"));
+        when(ticketService.createTicket(valida)).thenReturn(response("C01"));
+        when(ticketService.createTicket(invalida)).thenThrow(new RuntimeException("duplicate key"));
+
+        // When
+        CompletableFuture<TicketResponse> ok = batcher.submit(valida);
+        CompletableFuture<TicketResponse> fallida = batcher.submit(invalida);
+
+        // Then
+        assertThat(ok.get(1, TimeUnit.SECONDS).numero()).isEqualTo("C01");
+        assertThat(fallida)
+            .failsWithin(1, TimeUnit.SECONDS)
+            .withThrowableOfType(Exception.class)
+            .withMessageContaining("duplicate key");
+    }
+
+    private static CreateTicketRequest request(String nationalId) {
+        return new CreateTicketRequest(nationalId, "+56912345678", "Sucursal Centro", QueueType.CAJA);
+    }
+
+    private static TicketResponse response(String numero) {
+        return new TicketResponse(null, null, numero, null, null, "Sucursal Centro", QueueType.CAJA,
+            null, null, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.RemoteTicketCreatedEvent;
+import com.example.ticketero.model.event.RemoteTicketStatusChangedEvent;
+import com.example.ticketero.model.event.TicketCreatedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TicketEventRelay - Unit Tests")
+class TicketEventRelayTest {
+
+    private static final LocalDateTime AHORA = LocalDateTime.of(2024, 3, 15, 10, 0);
+    private static final TicketStatusChangedEvent LLAMADO = new TicketStatusChangedEvent(
+        1L, "C01", "Sucursal Centro", QueueType.CAJA, TicketStatus.PROXIMO, TicketStatus.ATENDIENDO, 3, AHORA);
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private TicketEventRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new TicketEventRelay(dataSource, jdbcTemplate, objectMapper, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("canal desactivado → no debe emitir NOTIFY")
+    void onTicketStatusChanged_canalDesactivado_noDebeNotificar() {
+        // When
+        relay.onTicketStatusChanged(LLAMADO);
+
+        // Then
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("evento de otra instancia → debe republicarse como evento remoto")
+    void handle_eventoDeOtraInstancia_debeRepublicarse() throws Exception {
+        // Given
+        String payload = objectMapper.writeValueAsString(new TicketEventRelay.Notification("otra-instancia", null, LLAMADO));
+
+        // When
+        relay.handle(payload);
+
+        // Then
+        verify(eventPublisher).publishEvent(new RemoteTicketStatusChangedEvent(LLAMADO));
+    }
+
+    @Test
+    @DisplayName("evento emitido por esta instancia → solo deben republicarlo las demás")
+    void handle_eventoPropio_soloDebenRepublicarloLasDemas() {
+        // Given: el NOTIFY propio vuelve por el mismo canal
+        ReflectionTestUtils.setField(relay, "active", true);
+        TicketCreatedEvent creado = new TicketCreatedEvent(2L, "C02", "Sucursal Centro", QueueType.CAJA, AHORA);
+        relay.onTicketCreated(creado);
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), eq(TicketEventRelay.CHANNEL), payload.capture());
+
+        // When
+        relay.handle(payload.getValue());
+        new TicketEventRelay(dataSource, jdbcTemplate, objectMapper, eventPublisher).handle(payload.getValue());
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(any(RemoteTicketCreatedEvent.class));
+        verify(eventPublisher).publishEvent(new RemoteTicketCreatedEvent(creado));
+    }
+
+    @Test
+    @DisplayName("payload inválido → debe ignorarse")
+    void handle_payloadInvalido_debeIgnorarse() {
+        // When
+        relay.handle("{no es json");
+
+        // Then
+        verifyNoInteractions(eventPublisher);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.dto.response.TicketResponse;
+import com.example.ticketero.model.enums.ExportFormat;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.repository.TicketRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TicketExportService - Unit Tests")
+class TicketExportServiceTest {
+
+    private static final LocalDate DESDE = LocalDate.of(2024, 3, 1);
+    private static final LocalDate HASTA = LocalDate.of(2024, 3, 31);
+    private static final LocalDateTime CREADO = LocalDateTime.of(2024, 3, 15, 9, 30);
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final BusinessCalendar businessCalendar = new BusinessCalendar();
+
+    private TicketExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new TicketExportService(
+                ticketRepository, businessCalendar, new ObjectMapper().findAndRegisterModules(), transactionManager);
+    }
+
+    @Test
+    @DisplayName("CSV → debe escribir encabezado y una fila por ticket, citando valores con comas")
+    void export_csv_debeEscribirEncabezadoYFilas() throws IOException {
+        // Given
+        streamTickets(ticket(1L, "Sucursal Centro, Piso 2"), ticket(2L, "Sucursal Norte"));
+
+        // When
+        String csv = write(exportService.export(DESDE, HASTA, ExportFormat.CSV, false));
+
+        // Then
+        String[] lines = csv.split("\r\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("id,codigoReferencia,numero");
+        assertThat(lines[1]).startsWith("1,").contains("\"Sucursal Centro, Piso 2\"");
+        assertThat(lines[2]).startsWith("2,").contains(",Sucursal Norte,");
+    }
+
+    @Test
+    @DisplayName("NDJSON → debe escribir un objeto JSON por línea")
+    void export_ndjson_debeEscribirUnObjetoPorLinea() throws IOException {
+        // Given
+        streamTickets(ticket(1L, "Sucursal Centro"), ticket(2L, "Sucursal Centro"));
+
+        // When
+        String ndjson = write(exportService.export(DESDE, HASTA, ExportFormat.NDJSON, false));
+
+        // Then
+        assertThat(ndjson.split("\n")).hasSize(2)
+                .allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+        assertThat(ndjson).contains("\"numero\":\"C01\"");
+    }
+
+    @Test
+    @DisplayName("con gzip → debe escribir el mismo contenido comprimido")
+    void export_conGzip_debeComprimir() throws IOException {
+        // Given
+        streamTickets(ticket(1L, "Sucursal Centro"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        exportService.export(DESDE, HASTA, ExportFormat.NDJSON, true).writeTo(out);
+
+        // Then
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            String ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(ndjson).contains("\"id\":1,").endsWith("}\n");
+        }
+    }
+
+    @Test
+    @DisplayName("debe leer el rango semiabierto desde el inicio de from hasta el fin de to")
+    void export_debeUsarLimitesDelDiaHabil() throws IOException {
+        // Given
+        streamTickets();
+
+        // When
+        write(exportService.export(DESDE, HASTA, ExportFormat.CSV, false));
+
+        // Then
+        verify(ticketRepository).streamResponsesCreatedBetween(
+                businessCalendar.dayRange(DESDE).start(), businessCalendar.dayRange(HASTA).end());
+    }
+
+    @Test
+    @DisplayName("error al escribir → debe cerrar el cursor y propagar la IOException")
+    void export_errorAlEscribir_debeCerrarCursor() {
+        // Given
+        AtomicBoolean cerrado = new AtomicBoolean();
+        when(ticketRepository.streamResponsesCreatedBetween(any(), any()))
+                .thenReturn(Stream.of(ticket(1L, "Sucursal Centro")).onClose(() -> cerrado.set(true)));
+        OutputStream clienteDesconectado = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // When + Then
+        assertThatThrownBy(() -> exportService.export(DESDE, HASTA, ExportFormat.CSV, false)
+                .writeTo(clienteDesconectado))
+                .isInstanceOf(IOException.class);
+        assertThat(cerrado).isTrue();
+    }
+
+    @Test
+    @DisplayName("from posterior a to → debe lanzar IllegalArgumentException sin consultar")
+    void export_rangoInvertido_debeLanzarExcepcion() {
+        // When + Then
+        assertThatThrownBy(() -> exportService.export(HASTA, DESDE, ExportFormat.CSV, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(ticketRepository);
+    }
+
+    private void streamTickets(TicketResponse... tickets) {
+        when(ticketRepository.streamResponsesCreatedBetween(any(), any())).thenReturn(Stream.of(tickets));
+    }
+
+    private static String write(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static TicketResponse ticket(Long id, String branchOffice) {
+        return new TicketResponse(
+                id, UUID.randomUUID(), "C01", "12345678", "+56912345678", branchOffice,
+                QueueType.CAJA, TicketStatus.COMPLETADO, 0, 0, 1L, "María López", 1, CREADO, CREADO.plusMinutes(5)
+        );
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.TicketNumberCounter;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.repository.TicketNumberCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TicketNumberAllocator - Unit Tests")
+class TicketNumberAllocatorTest {
+
+    private static final String SUCURSAL = "Sucursal Centro";
+    private static final LocalDate HOY = LocalDate.of(2024, 3, 15);
+
+    @Mock
+    private TicketNumberCounterRepository counterRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TicketNumberAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        allocator = new TicketNumberAllocator(counterRepository, transactionManager);
+        ReflectionTestUtils.setField(allocator, "blockSize", 3);
+    }
+
+    @Test
+    @DisplayName("sin contador del día → debe crearlo y numerar desde 01")
+    void nextNumber_sinContador_debeNumerarDesdeUno() {
+        // Given
+        when(counterRepository.findByBranchOfficeAndQueueTypeAndBusinessDate(SUCURSAL, QueueType.CAJA, HOY))
+            .thenReturn(Optional.empty());
+
+        // When
+        String numero = allocator.nextNumber(SUCURSAL, QueueType.CAJA, HOY);
+
+        // Then
+        assertThat(numero).isEqualTo("C01");
+        verify(counterRepository).saveAndFlush(argThat(counter -> counter.getLastNumber() == 3));
+    }
+
+    @Test
+    @DisplayName("bloque reservado → debe ir a la base de datos solo al agotarse")
+    void nextNumber_bloqueReservado_debeReservarSoloAlAgotarse() {
+        // Given
+        TicketNumberCounter counter = TicketNumberCounter.builder()
+            .branchOffice(SUCURSAL)
+            .queueType(QueueType.CAJA)
+            .businessDate(HOY)
+            .lastNumber(0)
+            .build();
+        when(counterRepository.findByBranchOfficeAndQueueTypeAndBusinessDate(SUCURSAL, QueueType.CAJA, HOY))
+            .thenReturn(Optional.of(counter));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            allocator.nextNumber(SUCURSAL, QueueType.CAJA, HOY);
+        }
+        String cuarto = allocator.nextNumber(SUCURSAL, QueueType.CAJA, HOY);
+
+        // Then
+        assertThat(cuarto).isEqualTo("C04");
+        assertThat(counter.getLastNumber()).isEqualTo(6);
+        verify(counterRepository, times(2)).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("lote mayor que el bloque → debe reservar lo que falta en un solo viaje")
+    void nextNumbers_loteMayorQueBloque_debeReservarUnaSolaVez() {
+        // Given
+        when(counterRepository.findByBranchOfficeAndQueueTypeAndBusinessDate(SUCURSAL, QueueType.CAJA, HOY))
+            .thenReturn(Optional.empty());
+
+        // When
+        List<String> numeros = allocator.nextNumbers(SUCURSAL, QueueType.CAJA, HOY, 5);
+
+        // Then
+        assertThat(numeros).containsExactly("C01", "C02", "C03", "C04", "C05");
+        verify(counterRepository).saveAndFlush(argThat(counter -> counter.getLastNumber() == 5));
+    }
+
+    @Test
+    @DisplayName("otra sucursal u otro día → numeración independiente")
+    void nextNumber_otraSucursalOtroDia_debeSerIndependiente() {
+        // Given
+        when(counterRepository.findByBranchOfficeAndQueueTypeAndBusinessDate(any(), any(), any()))
+            .thenReturn(Optional.empty());
+
+        // When
+        String centro = allocator.nextNumber(SUCURSAL, QueueType.CAJA, HOY);
+        String norte = allocator.nextNumber("Sucursal Norte", QueueType.CAJA, HOY);
+        String manana = allocator.nextNumber(SUCURSAL, QueueType.CAJA, HOY.plusDays(1));
+
+        // Then
+        assertThat(centro).isEqualTo("C01");
+        assertThat(norte).isEqualTo("C01");
+        assertThat(manana).isEqualTo("C01");
+    }
+}
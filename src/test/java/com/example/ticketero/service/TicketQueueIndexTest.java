@@ -0,0 +1,144 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.RemoteTicketCreatedEvent;
+import com.example.ticketero.model.event.RemoteTicketStatusChangedEvent;
+import com.example.ticketero.model.event.TicketCreatedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TicketQueueIndex - Unit Tests")
+class TicketQueueIndexTest {
+
+    private static final TicketQueueIndex.QueueKey CAJA_CENTRO =
+        new TicketQueueIndex.QueueKey("Sucursal Centro", QueueType.CAJA);
+
+    private TicketQueueIndex queueIndex;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        queueIndex = new TicketQueueIndex();
+        base = LocalDateTime.now().minusHours(1);
+    }
+
+    private Ticket ticket(long id, QueueType queueType) {
+        return ticketWaiting()
+            .id(id)
+            .queueType(queueType)
+            .createdAt(base.plusSeconds(id))
+            .build();
+    }
+
+    @Test
+    @DisplayName("positionOf() → debe retornar la posición según orden de llegada")
+    void positionOf_debeRetornarPosicionSegunOrden() {
+        // Given
+        queueIndex.rebuild(List.of(ticket(1, QueueType.CAJA), ticket(2, QueueType.CAJA), ticket(3, QueueType.CAJA)));
+
+        // When
+        queueIndex.remove(2L);
+
+        // Then
+        assertThat(queueIndex.positionOf(1L)).isEqualTo(1);
+        assertThat(queueIndex.positionOf(2L)).isEqualTo(0);
+        assertThat(queueIndex.positionOf(3L)).isEqualTo(2);
+        assertThat(queueIndex.ticketIds(CAJA_CENTRO)).containsExactly(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("colas distintas → posiciones independientes por tipo de cola")
+    void positionOf_colasDistintas_debenSerIndependientes() {
+        // Given
+        queueIndex.rebuild(List.of(ticket(1, QueueType.CAJA), ticket(2, QueueType.EMPRESAS)));
+
+        // When
+        queueIndex.enqueue(ticket(3, QueueType.CAJA));
+
+        // Then
+        assertThat(queueIndex.positionOf(2L)).isEqualTo(1);
+        assertThat(queueIndex.positionOf(3L)).isEqualTo(2);
+        assertThat(queueIndex.size(CAJA_CENTRO)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("knownQueues() → debe retornar las colas indexadas aunque se hayan vaciado")
+    void knownQueues_debeRetornarColasIndexadas() {
+        // Given
+        queueIndex.rebuild(List.of(ticket(1, QueueType.CAJA), ticket(2, QueueType.GERENCIA)));
+
+        // When
+        queueIndex.remove(1L);
+
+        // Then
+        assertThat(queueIndex.knownQueues()).containsExactlyInAnyOrder(
+            CAJA_CENTRO, new TicketQueueIndex.QueueKey("Sucursal Centro", QueueType.GERENCIA));
+        assertThat(queueIndex.size(CAJA_CENTRO)).isZero();
+    }
+
+    @Test
+    @DisplayName("drainDirtyQueues() → debe retornar solo colas modificadas desde la última llamada")
+    void drainDirtyQueues_debeRetornarSoloColasModificadas() {
+        // Given
+        queueIndex.rebuild(List.of(ticket(1, QueueType.CAJA)));
+        assertThat(queueIndex.drainDirtyQueues()).containsExactly(CAJA_CENTRO);
+
+        // When + Then
+        assertThat(queueIndex.drainDirtyQueues()).isEmpty();
+        queueIndex.remove(1L);
+        assertThat(queueIndex.drainDirtyQueues()).containsExactly(CAJA_CENTRO);
+    }
+
+    @Test
+    @DisplayName("muchas altas y bajas → debe mantener posiciones correctas al compactar")
+    void enqueueYRemove_masivos_debeMantenerPosiciones() {
+        // Given
+        List<Ticket> tickets = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            tickets.add(ticket(id, QueueType.CAJA));
+        }
+        queueIndex.rebuild(tickets);
+
+        // When
+        for (long id = 1; id <= 90; id++) {
+            queueIndex.remove(id);
+        }
+        for (long id = 101; id <= 150; id++) {
+            queueIndex.enqueue(ticket(id, QueueType.CAJA));
+        }
+
+        // Then
+        assertThat(queueIndex.size(CAJA_CENTRO)).isEqualTo(60);
+        assertThat(queueIndex.positionOf(91L)).isEqualTo(1);
+        assertThat(queueIndex.positionOf(150L)).isEqualTo(60);
+        assertThat(queueIndex.ticketIds(CAJA_CENTRO)).startsWith(91L, 92L).endsWith(150L);
+    }
+
+    @Test
+    @DisplayName("eventos de otra instancia → deben agregar y quitar tickets de la cola")
+    void eventosRemotos_debenMantenerLaCola() {
+        // Given
+        queueIndex.rebuild(List.of(ticket(1, QueueType.CAJA)));
+
+        // When
+        queueIndex.onRemoteTicketCreated(new RemoteTicketCreatedEvent(
+            new TicketCreatedEvent(2L, "C02", "Sucursal Centro", QueueType.CAJA, base)));
+        queueIndex.onRemoteTicketStatusChanged(new RemoteTicketStatusChangedEvent(new TicketStatusChangedEvent(
+            1L, "C01", "Sucursal Centro", QueueType.CAJA, TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO, 2, base)));
+
+        // Then
+        assertThat(queueIndex.ticketIds(CAJA_CENTRO)).containsExactly(2L);
+        assertThat(queueIndex.positionOf(2L)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.dto.response.TicketResponse;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.RemoteTicketStatusChangedEvent;
+import com.example.ticketero.model.event.TicketCreatedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TicketResponseCache - Unit Tests")
+class TicketResponseCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TicketResponseCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TicketResponseCache(meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    private static TicketResponse response(Long id, String numero) {
+        return new TicketResponse(id, UUID.randomUUID(), numero, "12345678", null, "Sucursal Centro",
+            QueueType.CAJA, TicketStatus.EN_ESPERA, 1, 0, null, null, null, LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    private Optional<TicketResponse> load(TicketResponse response) {
+        loads.incrementAndGet();
+        return Optional.of(response);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("ticketero.ticket.cache.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("ticket cargado por id → debe servirse también por código y registrar hit/miss")
+    void findById_debeIndexarPorCodigoYRegistrarMetricas() {
+        // Given
+        TicketResponse ticket = response(1L, "C01");
+        cache.findById(1L, () -> load(ticket));
+
+        // When
+        Optional<TicketResponse> porCodigo = cache.findByCodigoReferencia(ticket.codigoReferencia(), () -> load(ticket));
+
+        // Then
+        assertThat(porCodigo).contains(ticket);
+        assertThat(loads).hasValue(1);
+        assertThat(requests("hit")).isEqualTo(1.0);
+        assertThat(requests("miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("ticket nuevo con el mismo número → debe invalidar la búsqueda por número")
+    void onTicketCreated_mismoNumero_debeInvalidarNumero() {
+        // Given
+        TicketResponse anterior = response(1L, "C01");
+        TicketResponse nuevo = response(2L, "C01");
+        cache.findByNumero("C01", () -> load(anterior));
+
+        // When
+        cache.onTicketCreated(new TicketCreatedEvent(2L, "C01", "Sucursal Centro", QueueType.CAJA, LocalDateTime.now()));
+        Optional<TicketResponse> resultado = cache.findByNumero("C01", () -> load(nuevo));
+
+        // Then
+        assertThat(resultado).contains(nuevo);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("tamaño máximo alcanzado → debe expulsar el menos usado recientemente")
+    void store_tamanoMaximo_debeExpulsarMenosUsado() {
+        // Given
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+        cache.findById(1L, () -> load(response(1L, "C01")));
+        cache.findById(2L, () -> load(response(2L, "C02")));
+        cache.findById(1L, () -> load(response(1L, "C01")));
+
+        // When
+        cache.findById(3L, () -> load(response(3L, "C03")));
+
+        // Then
+        assertThat(cache.size()).isEqualTo(2);
+        cache.findById(1L, () -> load(response(1L, "C01")));
+        assertThat(loads).hasValue(3);
+        cache.findById(2L, () -> load(response(2L, "C02")));
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("invalidación durante la carga → no debe guardar la versión anterior")
+    void findById_invalidacionDuranteCarga_noDebeGuardar() {
+        // Given
+        TicketResponse ticket = response(1L, "C01");
+
+        // When
+        cache.findById(1L, () -> {
+            cache.invalidate(1L);
+            return load(ticket);
+        });
+
+        // Then
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("cambio de estado en otra instancia → debe invalidar el ticket")
+    void onRemoteTicketStatusChanged_debeInvalidar() {
+        // Given
+        TicketResponse ticket = response(1L, "C01");
+        cache.findById(1L, () -> load(ticket));
+
+        // When
+        cache.onRemoteTicketStatusChanged(new RemoteTicketStatusChangedEvent(new TicketStatusChangedEvent(
+            1L, "C01", "Sucursal Centro", QueueType.CAJA, TicketStatus.EN_ESPERA, TicketStatus.PROXIMO, null,
+            ticket.createdAt())));
+        cache.findById(1L, () -> load(ticket));
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+}
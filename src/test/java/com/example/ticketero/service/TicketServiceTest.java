@@ -1,20 +1,30 @@
 package com.example.ticketero.service;
 
 import com.example.ticketero.model.dto.request.CreateTicketRequest;
+import com.example.ticketero.model.dto.response.PageResponse;
 import com.example.ticketero.model.dto.response.TicketResponse;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketCreatedEvent;
 import com.example.ticketero.repository.AdvisorRepository;
 import com.example.ticketero.repository.TicketRepository;
+import com.example.ticketero.util.PageCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -34,6 +44,27 @@ class TicketServiceTest {
     @Mock
     private AdvisorRepository advisorRepository;
 
+    @Mock
+    private TicketQueueIndex queueIndex;
+
+    @Mock
+    private TicketNumberAllocator ticketNumberAllocator;
+
+    @Mock
+    private BusinessCalendar businessCalendar;
+
+    @Mock
+    private ActiveTicketCounters activeTicketCounters;
+
+    @Spy
+    private TicketResponseCache ticketResponseCache = new TicketResponseCache(new SimpleMeterRegistry());
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MessageService messageService;
+
     @InjectMocks
     private TicketService ticketService;
 
@@ -56,9 +87,6 @@ class TicketServiceTest {
                 .estimatedWaitMinutes(0)
                 .build();
 
-            when(ticketRepository.countByQueueType(QueueType.CAJA)).thenReturn(0L);
-            when(ticketRepository.findActiveTicketsByQueueType(eq(QueueType.CAJA), any()))
-                .thenReturn(List.of());
             when(ticketRepository.save(any(Ticket.class))).thenReturn(ticketGuardado);
 
             // When
@@ -73,6 +101,7 @@ class TicketServiceTest {
             assertThat(response.queueType()).isEqualTo(QueueType.CAJA);
 
             verify(ticketRepository).save(any(Ticket.class));
+            verify(messageService).scheduleTicketCreatedMessage(ticketGuardado);
         }
 
         @Test
@@ -82,8 +111,10 @@ class TicketServiceTest {
             CreateTicketRequest request = validTicketRequest();
             Ticket ticketGuardado = ticketWaiting().numero("C01").build();
 
-            when(ticketRepository.countByQueueType(QueueType.CAJA)).thenReturn(0L);
-            when(ticketRepository.findActiveTicketsByQueueType(any(), any())).thenReturn(List.of());
+            LocalDate hoy = LocalDate.of(2024, 3, 15);
+
+            when(businessCalendar.today("Sucursal Centro")).thenReturn(hoy);
+            when(ticketNumberAllocator.nextNumber("Sucursal Centro", QueueType.CAJA, hoy)).thenReturn("C01");
             when(ticketRepository.save(any())).thenReturn(ticketGuardado);
 
             // When
@@ -91,6 +122,8 @@ class TicketServiceTest {
 
             // Then
             assertThat(response.numero()).startsWith("C");
+            verify(ticketRepository).save(argThat(ticket ->
+                "C01".equals(ticket.getNumero()) && hoy.equals(ticket.getBusinessDate())));
         }
 
         @Test
@@ -105,8 +138,7 @@ class TicketServiceTest {
                 .numero("P01")
                 .build();
 
-            when(ticketRepository.countByQueueType(QueueType.PERSONAL_BANKER)).thenReturn(0L);
-            when(ticketRepository.findActiveTicketsByQueueType(any(), any())).thenReturn(List.of());
+            when(ticketNumberAllocator.nextNumber(any(), eq(QueueType.PERSONAL_BANKER), any())).thenReturn("P01");
             when(ticketRepository.save(any())).thenReturn(ticketGuardado);
 
             // When
@@ -123,8 +155,6 @@ class TicketServiceTest {
             CreateTicketRequest request = ticketRequestSinTelefono();
             Ticket ticketGuardado = ticketWaiting().telefono(null).build();
 
-            when(ticketRepository.countByQueueType(any())).thenReturn(0L);
-            when(ticketRepository.findActiveTicketsByQueueType(any(), any())).thenReturn(List.of());
             when(ticketRepository.save(any())).thenReturn(ticketGuardado);
 
             // When
@@ -140,15 +170,9 @@ class TicketServiceTest {
         void createTicket_debeCalcularPosicionCorrectamente() {
             // Given
             CreateTicketRequest request = validTicketRequest();
-            List<Ticket> ticketsActivos = List.of(
-                ticketWaiting().build(),
-                ticketWaiting().build()
-            );
             Ticket ticketGuardado = ticketWaiting().positionInQueue(3).build();
 
-            when(ticketRepository.countByQueueType(any())).thenReturn(0L);
-            when(ticketRepository.findActiveTicketsByQueueType(eq(QueueType.CAJA), any()))
-                .thenReturn(ticketsActivos);
+            when(activeTicketCounters.count("Sucursal Centro", QueueType.CAJA)).thenReturn(2L);
             when(ticketRepository.save(any())).thenReturn(ticketGuardado);
 
             // When
@@ -156,6 +180,8 @@ class TicketServiceTest {
 
             // Then
             assertThat(response.positionInQueue()).isEqualTo(3);
+            verify(ticketRepository).save(argThat(ticket -> ticket.getPositionInQueue() == 3));
+            verify(ticketRepository, never()).findActiveResponsesByBranchOfficeAndQueueType(any(), any(), any());
         }
 
         @Test
@@ -168,9 +194,7 @@ class TicketServiceTest {
                 .estimatedWaitMinutes(10) // (3-1) * 5 = 10
                 .build();
 
-            when(ticketRepository.countByQueueType(any())).thenReturn(0L);
-            when(ticketRepository.findActiveTicketsByQueueType(any(), any()))
-                .thenReturn(List.of(ticketWaiting().build(), ticketWaiting().build()));
+            when(activeTicketCounters.count(any(), any())).thenReturn(2L);
             when(ticketRepository.save(any())).thenReturn(ticketGuardado);
 
             // When
@@ -181,6 +205,55 @@ class TicketServiceTest {
         }
     }
 
+    // ============================================================
+    // CREAR TICKETS EN LOTE
+    // ============================================================
+
+    @Nested
+    @DisplayName("createTickets()")
+    class CreateTickets {
+
+        @Test
+        @DisplayName("lote con dos colas → números y posiciones consecutivas por cola, en el orden pedido")
+        void createTickets_dosColas_debeNumerarYPosicionarPorCola() {
+            // Given
+            CreateTicketRequest banker = new CreateTicketRequest(
+                "87654321", "+56987654321", "Sucursal Centro", QueueType.PERSONAL_BANKER
+            );
+            List<CreateTicketRequest> requests = List.of(validTicketRequest(), banker, validTicketRequest());
+
+            when(activeTicketCounters.count("Sucursal Centro", QueueType.CAJA)).thenReturn(2L);
+            when(activeTicketCounters.count("Sucursal Centro", QueueType.PERSONAL_BANKER)).thenReturn(0L);
+            when(ticketNumberAllocator.nextNumbers(any(), eq(QueueType.CAJA), any(), eq(2)))
+                .thenReturn(List.of("C03", "C04"));
+            when(ticketNumberAllocator.nextNumbers(any(), eq(QueueType.PERSONAL_BANKER), any(), eq(1)))
+                .thenReturn(List.of("P01"));
+            doAnswer(invocation -> {
+                List<Ticket> tickets = invocation.getArgument(0);
+                for (int i = 0; i < tickets.size(); i++) {
+                    tickets.get(i).setId(100L + i);
+                }
+                return null;
+            }).when(ticketRepository).insertAll(anyList());
+
+            // When
+            List<TicketResponse> responses = ticketService.createTickets(requests);
+
+            // Then
+            assertThat(responses).extracting(TicketResponse::numero).containsExactly("C03", "P01", "C04");
+            assertThat(responses).extracting(TicketResponse::positionInQueue).containsExactly(3, 1, 4);
+            assertThat(responses).extracting(TicketResponse::id).containsExactly(100L, 101L, 102L);
+            assertThat(responses).allSatisfy(response -> {
+                assertThat(response.status()).isEqualTo(TicketStatus.EN_ESPERA);
+                assertThat(response.codigoReferencia()).isNotNull();
+            });
+
+            verify(ticketRepository, never()).save(any());
+            verify(messageService).scheduleTicketCreatedMessages(argThat(tickets -> tickets.size() == 3));
+            verify(eventPublisher, times(3)).publishEvent(any(TicketCreatedEvent.class));
+        }
+    }
+
     // ============================================================
     // OBTENER TICKET
     // ============================================================
@@ -189,6 +262,29 @@ class TicketServiceTest {
     @DisplayName("findByCodigoReferencia()")
     class FindByCodigoReferencia {
 
+        @Test
+        @DisplayName("ticket en espera indexado → debe derivar posición y tiempo estimado del índice")
+        void findByCodigoReferencia_ticketIndexado_debeDerivarPosicionDelIndice() {
+            // Given
+            UUID codigo = UUID.randomUUID();
+            Ticket ticket = ticketWaiting()
+                .codigoReferencia(codigo)
+                .positionInQueue(5)
+                .estimatedWaitMinutes(20)
+                .build();
+
+            when(ticketRepository.findByCodigoReferencia(codigo)).thenReturn(Optional.of(ticket));
+            when(queueIndex.positionOf(ticket.getId())).thenReturn(2);
+
+            // When
+            Optional<TicketResponse> response = ticketService.findByCodigoReferencia(codigo);
+
+            // Then
+            assertThat(response).isPresent();
+            assertThat(response.get().positionInQueue()).isEqualTo(2);
+            assertThat(response.get().estimatedWaitMinutes()).isEqualTo(5); // (2-1) * 5
+        }
+
         @Test
         @DisplayName("con UUID existente → debe retornar ticket")
         void findByCodigoReferencia_conUuidExistente_debeRetornarTicket() {
@@ -223,5 +319,77 @@ class TicketServiceTest {
             // Then
             assertThat(response).isEmpty();
         }
+    
+        @Test
+        @DisplayName("segunda consulta → debe servirse desde el caché hasta que el ticket cambie")
+        void findByCodigoReferencia_segundaConsulta_debeUsarCache() {
+            // Given
+            UUID codigo = UUID.randomUUID();
+            Ticket ticket = ticketWaiting().codigoReferencia(codigo).build();
+            when(ticketRepository.findByCodigoReferencia(codigo)).thenReturn(Optional.of(ticket));
+
+            // When
+            ticketService.findByCodigoReferencia(codigo);
+            ticketService.findByCodigoReferencia(codigo);
+            ticketResponseCache.invalidate(ticket.getId());
+            ticketService.findByCodigoReferencia(codigo);
+
+            // Then
+            verify(ticketRepository, times(2)).findByCodigoReferencia(codigo);
+        }
+    }
+
+    // ============================================================
+    // LISTADOS
+    // ============================================================
+
+    @Nested
+    @DisplayName("findByStatus()")
+    class FindByStatus {
+
+        @Test
+        @DisplayName("debe usar la proyección y tomar la posición vigente del índice")
+        void findByStatus_debeUsarProyeccionYPosicionDelIndice() {
+            // Given
+            TicketResponse proyectado = proyectado(10L, LocalDateTime.of(2024, 3, 15, 9, 0));
+            when(ticketRepository.findResponsesByStatusAfter(
+                eq(TicketStatus.EN_ESPERA), any(), any(), any(Pageable.class))).thenReturn(List.of(proyectado));
+            when(queueIndex.positionOf(10L)).thenReturn(2);
+
+            // When
+            PageResponse<TicketResponse> page = ticketService.findByStatus(TicketStatus.EN_ESPERA, null, 50);
+
+            // Then
+            assertThat(page.items()).hasSize(1);
+            assertThat(page.items().get(0).positionInQueue()).isEqualTo(2);
+            assertThat(page.items().get(0).estimatedWaitMinutes()).isEqualTo(5);
+            assertThat(page.nextCursor()).isNull();
+            verify(ticketRepository, never()).findByStatus(any());
+        }
+
+        @Test
+        @DisplayName("página llena → debe entregar cursor que continúa después del último ticket")
+        void findByStatus_paginaLlena_debeEntregarCursorDelUltimo() {
+            // Given
+            LocalDateTime creado = LocalDateTime.of(2024, 3, 15, 9, 0);
+            PageCursor inicio = PageCursor.START;
+            when(ticketRepository.findResponsesByStatusAfter(
+                TicketStatus.COMPLETADO, inicio.createdAt(), inicio.id(), PageRequest.ofSize(3)))
+                .thenReturn(List.of(proyectado(1L, creado), proyectado(2L, creado), proyectado(3L, creado.plusMinutes(1))));
+
+            // When
+            PageResponse<TicketResponse> page = ticketService.findByStatus(TicketStatus.COMPLETADO, null, 2);
+
+            // Then
+            assertThat(page.items()).extracting(TicketResponse::id).containsExactly(1L, 2L);
+            assertThat(PageCursor.decode(page.nextCursor())).isEqualTo(new PageCursor(creado, 2L));
+        }
+
+        private TicketResponse proyectado(Long id, LocalDateTime createdAt) {
+            return new TicketResponse(
+                id, UUID.randomUUID(), "C05", "12345678", null, "Sucursal Centro",
+                QueueType.CAJA, TicketStatus.EN_ESPERA, 5, 20, null, null, null, createdAt, createdAt
+            );
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,169 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.dto.response.TicketResponse;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.RemoteTicketEventsGapEvent;
+import com.example.ticketero.model.event.RemoteTicketStatusChangedEvent;
+import com.example.ticketero.model.event.TicketStatusChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TicketWatchService - Unit Tests")
+class TicketWatchServiceTest {
+
+    private static final String SUCURSAL = "Sucursal Centro";
+
+    @Mock
+    private TicketService ticketService;
+
+    @InjectMocks
+    private TicketWatchService ticketWatchService;
+
+    private static TicketResponse response(Long id, UUID codigo, TicketStatus status, int position) {
+        return new TicketResponse(id, codigo, "C0" + id, "12345678", null, SUCURSAL, QueueType.CAJA,
+            status, position, (position - 1) * 5, null, null, null, LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    private static TicketStatusChangedEvent cambio(Long id, TicketStatus anterior, TicketStatus nuevo) {
+        return new TicketStatusChangedEvent(id, "C0" + id, SUCURSAL, QueueType.CAJA, anterior, nuevo, null, LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("ticket inexistente → debe responder 404 de inmediato")
+    void watch_ticketInexistente_debeResponder404() {
+        // Given
+        UUID codigo = UUID.randomUUID();
+        when(ticketService.findByCodigoReferencia(codigo)).thenReturn(Optional.empty());
+
+        // When
+        DeferredResult<ResponseEntity<TicketResponse>> result = ticketWatchService.watch(codigo, null, null);
+
+        // Then
+        assertThat(result.hasResult()).isTrue();
+        assertThat(((ResponseEntity<?>) result.getResult()).getStatusCode().value()).isEqualTo(404);
+    }
+
+    @Test
+    @DisplayName("estado conocido desactualizado → debe responder de inmediato")
+    void watch_estadoDesactualizado_debeResponderDeInmediato() {
+        // Given
+        UUID codigo = UUID.randomUUID();
+        when(ticketService.findByCodigoReferencia(codigo))
+            .thenReturn(Optional.of(response(1L, codigo, TicketStatus.PROXIMO, 1)));
+
+        // When
+        DeferredResult<ResponseEntity<TicketResponse>> result =
+            ticketWatchService.watch(codigo, TicketStatus.EN_ESPERA, 1);
+
+        // Then
+        assertThat(result.hasResult()).isTrue();
+        assertThat(ticketWatchService.watcherCount(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("sin cambios → debe esperar y responder al cambiar el estado del ticket")
+    void watch_sinCambios_debeResponderAlCambiarEstado() {
+        // Given
+        UUID codigo = UUID.randomUUID();
+        TicketResponse enEspera = response(1L, codigo, TicketStatus.EN_ESPERA, 2);
+        TicketResponse atendiendo = response(1L, codigo, TicketStatus.ATENDIENDO, 0);
+        when(ticketService.findByCodigoReferencia(codigo)).thenReturn(Optional.of(enEspera));
+        when(ticketService.findById(1L)).thenReturn(Optional.of(atendiendo));
+
+        DeferredResult<ResponseEntity<TicketResponse>> result =
+            ticketWatchService.watch(codigo, TicketStatus.EN_ESPERA, 2);
+        assertThat(result.hasResult()).isFalse();
+        assertThat(ticketWatchService.watcherCount(1L)).isEqualTo(1);
+
+        // When
+        ticketWatchService.onTicketStatusChanged(cambio(2L, TicketStatus.ATENDIENDO, TicketStatus.COMPLETADO));
+        assertThat(result.hasResult()).isFalse();
+        ticketWatchService.onTicketStatusChanged(cambio(1L, TicketStatus.PROXIMO, TicketStatus.ATENDIENDO));
+
+        // Then
+        assertThat(result.hasResult()).isTrue();
+        assertThat(((ResponseEntity<?>) result.getResult()).getBody()).isEqualTo(atendiendo);
+        verify(ticketService, never()).findById(2L);
+    }
+
+    @Test
+    @DisplayName("ticket de adelante sale de la cola → debe responder con la nueva posición sin consultar")
+    void watch_ticketDeAdelanteSale_debeResponderNuevaPosicion() {
+        // Given
+        UUID codigo = UUID.randomUUID();
+        TicketResponse posicionDos = response(1L, codigo, TicketStatus.EN_ESPERA, 2);
+        TicketResponse posicionUno = response(1L, codigo, TicketStatus.EN_ESPERA, 1);
+        when(ticketService.findByCodigoReferencia(codigo)).thenReturn(Optional.of(posicionDos));
+        when(ticketService.withCurrentPosition(posicionDos)).thenReturn(posicionUno);
+
+        DeferredResult<ResponseEntity<TicketResponse>> result = ticketWatchService.watch(codigo, null, null);
+
+        // When
+        ticketWatchService.onTicketStatusChanged(cambio(2L, TicketStatus.PROXIMO, TicketStatus.ATENDIENDO));
+
+        // Then
+        assertThat(result.hasResult()).isTrue();
+        assertThat(((ResponseEntity<?>) result.getResult()).getBody()).isEqualTo(posicionUno);
+        verify(ticketService, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("cambio de estado en otra instancia → debe responder al cliente conectado aquí")
+    void watch_cambioEnOtraInstancia_debeResponder() {
+        // Given
+        UUID codigo = UUID.randomUUID();
+        TicketResponse proximo = response(1L, codigo, TicketStatus.PROXIMO, 1);
+        TicketResponse atendiendo = response(1L, codigo, TicketStatus.ATENDIENDO, 0);
+        when(ticketService.findByCodigoReferencia(codigo)).thenReturn(Optional.of(proximo));
+        when(ticketService.findById(1L)).thenReturn(Optional.of(atendiendo));
+
+        DeferredResult<ResponseEntity<TicketResponse>> result = ticketWatchService.watch(codigo, null, null);
+
+        // When
+        ticketWatchService.onRemoteTicketStatusChanged(
+            new RemoteTicketStatusChangedEvent(cambio(1L, TicketStatus.PROXIMO, TicketStatus.ATENDIENDO)));
+
+        // Then
+        assertThat(result.hasResult()).isTrue();
+        assertThat(((ResponseEntity<?>) result.getResult()).getBody()).isEqualTo(atendiendo);
+    }
+
+    @Test
+    @DisplayName("canal de eventos reconectado → debe responder solo a quienes tienen una versión vieja")
+    void watch_canalReconectado_debeResponderSoloSiCambio() {
+        // Given
+        UUID codigoCambiado = UUID.randomUUID();
+        UUID codigoIgual = UUID.randomUUID();
+        TicketResponse enEspera = response(1L, codigoCambiado, TicketStatus.EN_ESPERA, 2);
+        TicketResponse sinCambios = response(2L, codigoIgual, TicketStatus.EN_ESPERA, 3);
+        when(ticketService.findByCodigoReferencia(codigoCambiado)).thenReturn(Optional.of(enEspera));
+        when(ticketService.findByCodigoReferencia(codigoIgual)).thenReturn(Optional.of(sinCambios));
+        when(ticketService.findById(1L)).thenReturn(Optional.of(response(1L, codigoCambiado, TicketStatus.PROXIMO, 1)));
+        when(ticketService.findById(2L)).thenReturn(Optional.of(sinCambios));
+
+        DeferredResult<ResponseEntity<TicketResponse>> cambiado = ticketWatchService.watch(codigoCambiado, null, null);
+        DeferredResult<ResponseEntity<TicketResponse>> igual = ticketWatchService.watch(codigoIgual, null, null);
+
+        // When
+        ticketWatchService.onRemoteTicketEventsGap(new RemoteTicketEventsGapEvent());
+
+        // Then
+        assertThat(cambiado.hasResult()).isTrue();
+        assertThat(igual.hasResult()).isFalse();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.ticketero.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TimingWheel - Unit Tests")
+class TimingWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("elemento agendado → debe vencer en su segundo, no antes")
+    void advance_debeEntregarEnSuSegundo() {
+        // Given
+        TimingWheel<Long> wheel = new TimingWheel<>(1000, 60, 3, START);
+        wheel.schedule(1L, START + 5_000);
+
+        // When + Then
+        assertThat(wheel.advance(START + 4_999)).isEmpty();
+        assertThat(wheel.advance(START + 5_000)).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("vencimiento en un nivel superior → debe bajar de nivel y vencer a tiempo")
+    void advance_nivelSuperior_debeVencerATiempo() {
+        // Given: 2 horas y 7 segundos adelante (nivel de horas)
+        TimingWheel<Long> wheel = new TimingWheel<>(1000, 60, 3, START);
+        long deadline = START + (2 * 3600 + 7) * 1000L;
+        wheel.schedule(1L, deadline);
+
+        // When + Then
+        assertThat(wheel.advance(deadline - 1000)).isEmpty();
+        assertThat(wheel.advance(deadline)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("instante ya pasado → debe entregarse en el próximo avance")
+    void schedule_instantePasado_debeEntregarseEnProximoAvance() {
+        // Given
+        TimingWheel<Long> wheel = new TimingWheel<>(1000, 60, 3, START);
+
+        // When
+        wheel.schedule(1L, START - 30_000);
+
+        // Then
+        assertThat(wheel.advance(START)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("más allá del horizonte → no debe agendarse")
+    void schedule_fueraDelHorizonte_debeRechazarse() {
+        // Given
+        TimingWheel<Long> wheel = new TimingWheel<>(1000, 60, 3, START);
+
+        // When + Then
+        assertThat(wheel.schedule(1L, START + wheel.horizonMillis())).isTrue();
+        assertThat(wheel.schedule(2L, START + 60L * 60 * 60 * 1000)).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("elemento ya agendado → no debe duplicarse hasta que venza")
+    void schedule_duplicado_debeIgnorarse() {
+        // Given
+        TimingWheel<Long> wheel = new TimingWheel<>(1000, 60, 3, START);
+        wheel.schedule(1L, START + 2_000);
+
+        // When + Then
+        assertThat(wheel.schedule(1L, START + 3_000)).isFalse();
+        assertThat(wheel.advance(START + 10_000)).containsExactly(1L);
+        assertThat(wheel.schedule(1L, START + 12_000)).isTrue();
+    }
+
+    @Test
+    @DisplayName("vencimientos aleatorios → cada uno debe entregarse exactamente en su tick")
+    void advance_vencimientosAleatorios_debenEntregarseEnSuTick() {
+        // Given: wheel pequeño (4 ranuras, 3 niveles) para recorrer todos los traspasos entre niveles
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 4, 3, 0);
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long item = 0; item < 500; item++) {
+            long deadline = 1 + random.nextInt((int) wheel.horizonMillis());
+            if (wheel.schedule(item, deadline)) {
+                deadlines.put(item, deadline);
+            }
+        }
+
+        // When
+        List<Long> mistimed = new ArrayList<>();
+        for (long now = 1; now <= wheel.horizonMillis(); now++) {
+            for (Long item : wheel.advance(now)) {
+                if (!Long.valueOf(now).equals(deadlines.remove(item))) {
+                    mistimed.add(item);
+                }
+            }
+        }
+
+        // Then
+        assertThat(mistimed).isEmpty();
+        assertThat(deadlines).isEmpty();
+    }
+}